@@ -27,6 +27,20 @@ repositories {
     }
 }
 
+// Benchmarks are run with `./gradlew jmh`, and live apart from the tests so they're never run by `check`.
+sourceSets {
+	create("jmh") {
+		compileClasspath += sourceSets.main.get().output
+		runtimeClasspath += sourceSets.main.get().output
+	}
+}
+
+configurations {
+	named("jmhImplementation") {
+		extendsFrom(configurations.implementation.get())
+	}
+}
+
 dependencies {
     implementation(libs.dfu)
 	implementation(libs.javalin)
@@ -39,6 +53,13 @@ dependencies {
 	implementation(libs.jetbrains.annotations)
 
 	implementation(libs.argon2.jvm)
+
+	testImplementation(platform(libs.junit.bom))
+	testImplementation(libs.junit.jupiter)
+	testRuntimeOnly(libs.junit.launcher)
+
+	"jmhImplementation"(libs.jmh.core)
+	"jmhAnnotationProcessor"(libs.jmh.generator)
 }
 
 tasks {
@@ -69,6 +90,35 @@ tasks {
     withType<Zip>().configureEach {
         duplicatesStrategy = DuplicatesStrategy.EXCLUDE
     }
+	test.configure {
+		useJUnitPlatform()
+		// The backend opens ./database.db and ./.env, so tests run in a directory of their own.
+		val runDirectory = layout.buildDirectory.dir("test-run").get().asFile
+		workingDir = runDirectory
+		systemProperty("modgarden.source_directory", file("src/main/java").absolutePath)
+		jvmArgs("--enable-native-access=ALL-UNNAMED")
+		doFirst {
+			runDirectory.deleteRecursively()
+			runDirectory.mkdirs()
+			runDirectory.resolve(".env").writeText("env=test\n")
+		}
+	}
+	register<JavaExec>("jmh") {
+		group = "verification"
+		description = "Runs the JMH benchmarks. Pass -Pjmh.includes=<regex> to only run some of them."
+		classpath = sourceSets["jmh"].runtimeClasspath
+		mainClass = "org.openjdk.jmh.Main"
+		args(project.findProperty("jmh.includes")?.toString() ?: ".*")
+		// Like the tests, benchmarks create their own ./database.db and ./.env.
+		val runDirectory = layout.buildDirectory.dir("jmh-run").get().asFile
+		workingDir = runDirectory
+		jvmArgs("--enable-native-access=ALL-UNNAMED")
+		doFirst {
+			runDirectory.deleteRecursively()
+			runDirectory.mkdirs()
+			runDirectory.resolve(".env").writeText("env=benchmark\n")
+		}
+	}
 }
 
 distributions {
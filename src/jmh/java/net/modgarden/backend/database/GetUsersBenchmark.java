@@ -0,0 +1,228 @@
+package net.modgarden.backend.database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import net.modgarden.backend.ModGardenBackend;
+import net.modgarden.backend.data.user.User;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Reads every user through [DatabaseAccess#getUsers(PageRequest)], as `/v2/users?with=value` does, at several
+/// amounts of users. Each user is on several projects, each submitted to several events, so the project and event
+/// lookups are measured along with the rest of the user.
+///
+/// Alongside the time taken, the total amount of `queries` executed and `reads` made are reported for each
+/// iteration. Queries per read is their ratio, which should stay the same however many users there are.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetUsersBenchmark {
+	private static final int PROJECTS_PER_USER = 3;
+	private static final int SUBMISSIONS_PER_PROJECT = 2;
+	private static final int EVENTS = 12;
+
+	@Param({"10", "100", "1000"})
+	public int users;
+
+	private Connection connection;
+	private DatabaseAccess db;
+	private long queries;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		for (String file : List.of("database.db", "database.db-wal", "database.db-shm")) {
+			Files.deleteIfExists(Path.of(file));
+		}
+		ModGardenBackend.createDatabaseContents();
+
+		Connection delegate = ModGardenBackend.createDatabaseConnection();
+		insertUsers(delegate, this.users);
+
+		this.connection = proxy(Connection.class, delegate, (method, result) -> {
+			if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+				return proxy(PreparedStatement.class, statement, (_, _) -> null);
+			}
+			return null;
+		});
+		this.connection.setAutoCommit(false);
+		this.db = DatabaseAccess.borrow(this.connection);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		this.connection.rollback();
+		this.connection.close();
+	}
+
+	@Benchmark
+	public List<User> getUsers(Queries counter) throws Exception {
+		long before = this.queries;
+		List<User> values = this.db.call(() -> this.db.getUsers(PageRequest.ALL).values());
+		counter.queries += this.queries - before;
+		counter.reads++;
+		return values;
+	}
+
+	/// Wraps an object so every call made to it goes through to the delegate, counting each query that's executed.
+	///
+	/// @param wrapper replaces what a call returned, or returns `null` to keep it.
+	private <T> T proxy(Class<T> type, T delegate, BiFunction<Method, Object, Object> wrapper) {
+		return type.cast(Proxy.newProxyInstance(
+				GetUsersBenchmark.class.getClassLoader(),
+				new Class<?>[] { type },
+				(_, method, args) -> {
+					if (method.getName().startsWith("execute")) {
+						this.queries++;
+					}
+					Object result;
+					try {
+						result = method.invoke(delegate, args);
+					} catch (InvocationTargetException ex) {
+						throw ex.getCause();
+					}
+					Object wrapped = wrapper.apply(method, result);
+					return wrapped == null ? result : wrapped;
+				}
+		));
+	}
+
+	private static void insertUsers(Connection connection, int count) throws SQLException {
+		connection.setAutoCommit(false);
+		try (Statement statement = connection.createStatement();
+			 PreparedStatement usersStatement = connection.prepareStatement("""
+					INSERT INTO users (id, username, created, permissions) VALUES (?, ?, ?, 0)
+			 """);
+			 PreparedStatement userBiosStatement = connection.prepareStatement("""
+					INSERT INTO user_bios (user_id, display_name, pronouns, description) VALUES (?, ?, 'they/them', 'Grows mods.')
+			 """);
+			 PreparedStatement userBioFieldsStatement = connection.prepareStatement("""
+					INSERT INTO user_bio_fields (user_id, field_name, field_value) VALUES (?, 'website', 'https://modgarden.net')
+			 """);
+			 PreparedStatement userIntegrationDiscordStatement = connection.prepareStatement("""
+					INSERT INTO user_integration_discord (user_id, discord_id) VALUES (?, ?)
+			 """);
+			 PreparedStatement userRolesStatement = connection.prepareStatement("""
+					INSERT INTO user_roles (role_id, user_id) VALUES (?, ?)
+			 """);
+			 PreparedStatement eventsStatement = connection.prepareStatement("""
+					INSERT INTO events (id, slug, genre_slug, genre_id) VALUES (?, ?, 'mod-garden', 'mdgdn')
+			 """);
+			 PreparedStatement projectsStatement = connection.prepareStatement("""
+					INSERT INTO projects (id) VALUES (?)
+			 """);
+			 PreparedStatement projectRolesStatement = connection.prepareStatement("""
+					INSERT INTO project_roles (project_id, user_id, permissions) VALUES (?, ?, ?)
+			 """);
+			 PreparedStatement submissionsStatement = connection.prepareStatement("""
+					INSERT INTO submissions (id, event_id, project_id, submitted) VALUES (?, ?, ?, 0)
+			 """)) {
+			statement.execute("""
+					INSERT INTO user_role_definitions (id, name, permissions, created)
+					VALUES ('membr', 'Member', 0, 0), ('moder', 'Moderator', 0, 0)
+			""");
+
+			for (int i = 0; i < EVENTS; i++) {
+				eventsStatement.setString(1, "e" + i);
+				eventsStatement.setString(2, "event-" + i);
+				eventsStatement.addBatch();
+			}
+			eventsStatement.executeBatch();
+
+			for (int i = 0; i < count; i++) {
+				String id = "u" + i;
+				usersStatement.setString(1, id);
+				usersStatement.setString(2, "gardener" + i);
+				usersStatement.setLong(3, i);
+				usersStatement.addBatch();
+
+				userBiosStatement.setString(1, id);
+				userBiosStatement.setString(2, "Gardener " + i);
+				userBiosStatement.addBatch();
+
+				userBioFieldsStatement.setString(1, id);
+				userBioFieldsStatement.addBatch();
+
+				userIntegrationDiscordStatement.setString(1, id);
+				userIntegrationDiscordStatement.setString(2, Long.toString(100_000_000_000_000_000L + i));
+				userIntegrationDiscordStatement.addBatch();
+
+				userRolesStatement.setString(1, "membr");
+				userRolesStatement.setString(2, id);
+				userRolesStatement.addBatch();
+				// Only some users have more than one role, as on the live site.
+				if (i % 10 == 0) {
+					userRolesStatement.setString(1, "moder");
+					userRolesStatement.setString(2, id);
+					userRolesStatement.addBatch();
+				}
+
+				for (int j = 0; j < PROJECTS_PER_USER; j++) {
+					String projectId = id + "p" + j;
+					projectsStatement.setString(1, projectId);
+					projectsStatement.addBatch();
+
+					// Owned by this user, with the previous user as a member of the team.
+					projectRolesStatement.setString(1, projectId);
+					projectRolesStatement.setString(2, id);
+					projectRolesStatement.setLong(3, 1);
+					projectRolesStatement.addBatch();
+					if (i > 0) {
+						projectRolesStatement.setString(1, projectId);
+						projectRolesStatement.setString(2, "u" + (i - 1));
+						projectRolesStatement.setLong(3, 0);
+						projectRolesStatement.addBatch();
+					}
+
+					for (int k = 0; k < SUBMISSIONS_PER_PROJECT; k++) {
+						submissionsStatement.setString(1, projectId + "s" + k);
+						submissionsStatement.setString(2, "e" + ((i + j + k) % EVENTS));
+						submissionsStatement.setString(3, projectId);
+						submissionsStatement.addBatch();
+					}
+				}
+			}
+			usersStatement.executeBatch();
+			userBiosStatement.executeBatch();
+			userBioFieldsStatement.executeBatch();
+			userIntegrationDiscordStatement.executeBatch();
+			userRolesStatement.executeBatch();
+			projectsStatement.executeBatch();
+			projectRolesStatement.executeBatch();
+			submissionsStatement.executeBatch();
+		}
+		connection.commit();
+	}
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Queries {
+		public long queries;
+		public long reads;
+	}
+}
@@ -0,0 +1,163 @@
+package net.modgarden.backend.util.codec;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.stream.JsonWriter;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import net.modgarden.backend.data.Integration;
+import net.modgarden.backend.data.event.Event;
+import net.modgarden.backend.data.event.EventMetadata;
+import net.modgarden.backend.data.event.EventTimes;
+import net.modgarden.backend.data.event.game.MinecraftEventPlatform;
+import net.modgarden.backend.data.permission.Permission;
+import net.modgarden.backend.data.permission.Permissions;
+import net.modgarden.backend.data.project.Project;
+import net.modgarden.backend.data.project.Submission;
+import net.modgarden.backend.data.project.metadata.ModProjectMetadata;
+import net.modgarden.backend.data.project.platform.ModrinthSubmissionPlatform;
+import net.modgarden.backend.data.user.Bio;
+import net.modgarden.backend.data.user.User;
+import net.modgarden.backend.data.user.integration.DiscordUserIntegration;
+import net.modgarden.backend.data.user.integration.ModrinthUserIntegration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Compares encoding a list response with [JsonSerializer]s against encoding it through the types' [Codec]s into a
+/// [com.google.gson.JsonElement] tree first, as responses were before. Both write to a [Writer] which discards its
+/// output, so only the encoding is measured.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializerBenchmark {
+	private static final int COUNT = 500;
+
+	private List<User> users;
+	private List<Event> events;
+	private List<Submission> submissions;
+
+	@Setup
+	public void setUp() {
+		Instant time = Instant.ofEpochMilli(1_735_689_600_123L);
+		EventTimes times = new EventTimes(
+				time,
+				time.plusSeconds(86_400),
+				time.plusSeconds(172_800),
+				time.plusSeconds(259_200),
+				time.plusSeconds(345_600)
+		);
+
+		this.users = new ArrayList<>(COUNT);
+		this.events = new ArrayList<>(COUNT);
+		this.submissions = new ArrayList<>(COUNT);
+		for (int i = 0; i < COUNT; i++) {
+			String id = "u" + i;
+
+			Map<String, String> fields = new LinkedHashMap<>();
+			fields.put("website", "https://modgarden.net/" + i);
+			Map<String, Integration> integrations = new LinkedHashMap<>();
+			integrations.put(ModrinthUserIntegration.ID, new ModrinthUserIntegration("gardener" + i));
+			integrations.put(DiscordUserIntegration.ID, new DiscordUserIntegration(Long.toString(100_000_000_000_000_000L + i)));
+			this.users.add(new User(
+					id,
+					"gardener" + i,
+					new Bio("Gardener " + i, "they/them", "Grows mods.", null, fields),
+					new Permissions(Permission.EDIT_PROFILE, Permission.PARTICIPATE),
+					time,
+					integrations,
+					new LinkedHashSet<>(List.of("p" + i, "p" + (i + 1))),
+					new LinkedHashSet<>(List.of("e" + i)),
+					Set.of()
+			));
+
+			this.events.add(new Event(
+					"e" + i,
+					"event-" + i,
+					new EventMetadata("Event " + i, "A month of making mods."),
+					times,
+					new MinecraftEventPlatform("neoforge", "1.21.1"),
+					Map.of("participant", "parti")
+			));
+
+			Map<String, String> team = new LinkedHashMap<>();
+			team.put(id, "Developer");
+			Map<String, Permissions> permissions = new LinkedHashMap<>();
+			permissions.put(id, new Permissions(Permission.EDIT_PROJECT));
+			this.submissions.add(new Submission(
+					"s" + i,
+					"e" + i,
+					time,
+					new Project(
+							"p" + i,
+							new ModProjectMetadata("mod_" + i, "Mod " + i, "Adds things.", "https://github.com/ModGardenEvent"),
+							team,
+							permissions,
+							List.of("s" + i)
+					),
+					new ModrinthSubmissionPlatform("AANobbMI", "IZskON6d")
+			));
+		}
+	}
+
+	@Benchmark
+	public void usersCodec() throws IOException {
+		writeWithCodec(User.DIRECT_CODEC, this.users);
+	}
+
+	@Benchmark
+	public void usersSerializer() throws IOException {
+		writeWithSerializer(User.SERIALIZER, this.users);
+	}
+
+	@Benchmark
+	public void eventsCodec() throws IOException {
+		writeWithCodec(Event.DIRECT_CODEC, this.events);
+	}
+
+	@Benchmark
+	public void eventsSerializer() throws IOException {
+		writeWithSerializer(Event.SERIALIZER, this.events);
+	}
+
+	@Benchmark
+	public void submissionsCodec() throws IOException {
+		writeWithCodec(Submission.DIRECT_CODEC, this.submissions);
+	}
+
+	@Benchmark
+	public void submissionsSerializer() throws IOException {
+		writeWithSerializer(Submission.SERIALIZER, this.submissions);
+	}
+
+	private static <T> void writeWithCodec(Codec<T> codec, List<T> values) throws IOException {
+		JsonWriter writer = JsonSerializer.GSON.newJsonWriter(Writer.nullWriter());
+		JsonSerializer.GSON.toJson(codec.listOf().encodeStart(JsonOps.INSTANCE, values).getOrThrow(), writer);
+		writer.flush();
+	}
+
+	private static <T> void writeWithSerializer(JsonSerializer<T> serializer, List<T> values) throws IOException {
+		JsonWriter writer = JsonSerializer.GSON.newJsonWriter(Writer.nullWriter());
+		JsonSerializer.list(serializer).write(writer, values);
+		writer.flush();
+	}
+}
@@ -1,34 +1,47 @@
 package net.modgarden.backend;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
 import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Collection;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Properties;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import ch.qos.logback.classic.Level;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.JsonOps;
 import io.github.cdimascio.dotenv.Dotenv;
 import io.javalin.Javalin;
+import io.javalin.http.Header;
 import io.javalin.json.JsonMapper;
 import net.modgarden.backend.data.ExceptionPage;
 import net.modgarden.backend.data.LandingPage;
+import net.modgarden.backend.data.NaturalIdAllocator;
 import net.modgarden.backend.data.award.Award;
 import net.modgarden.backend.data.award.AwardInstance;
 import net.modgarden.backend.data.event.Event;
@@ -38,17 +51,28 @@ import net.modgarden.backend.data.project.Submission;
 import net.modgarden.backend.data.fixer.DatabaseFixer;
 import net.modgarden.backend.data.user.User;
 import net.modgarden.backend.data.user.role.UserRole;
+import net.modgarden.backend.database.ApiKeyUsageTracker;
+import net.modgarden.backend.database.ChangeVersions;
+import net.modgarden.backend.database.CredentialCache;
+import net.modgarden.backend.database.DatabaseAccess;
+import net.modgarden.backend.database.DatabaseMaintenance;
+import net.modgarden.backend.database.DatabasePool;
+import net.modgarden.backend.database.EntityCaches;
+import net.modgarden.backend.database.WriteExecutor;
 import net.modgarden.backend.database.function.GenerateNaturalIdFunction;
 import net.modgarden.backend.database.function.HasPermissionsFunction;
 import net.modgarden.backend.database.function.UnixMillisFunction;
 import net.modgarden.backend.endpoint.Endpoint;
+import net.modgarden.backend.endpoint.RenderedResponseCache;
 import net.modgarden.backend.endpoint.exception.HypertextException;
+import net.modgarden.backend.endpoint.exception.ServiceUnavailableException;
 import net.modgarden.backend.endpoint.internal.event.CreateEventEndpoint;
 import net.modgarden.backend.endpoint.internal.event.ModifyEventEndpoint;
 import net.modgarden.backend.endpoint.internal.role.CreateRoleEndpoint;
 import net.modgarden.backend.endpoint.internal.role.DeleteRoleEndpoint;
 import net.modgarden.backend.endpoint.internal.role.ModifyRoleEndpoint;
 import net.modgarden.backend.endpoint.internal.user.*;
+import net.modgarden.backend.endpoint.v2.auth.CreateSessionEndpoint;
 import net.modgarden.backend.endpoint.v2.auth.api_keys.DeleteKeyEndpoint;
 import net.modgarden.backend.endpoint.v2.auth.api_keys.GenerateKeyEndpoint;
 import net.modgarden.backend.endpoint.v2.auth.api_keys.ListKeysEndpoint;
@@ -69,10 +93,16 @@ import net.modgarden.backend.endpoint.v2.submissions.GetSubmissionEndpoint;
 import net.modgarden.backend.endpoint.v2.submissions.ModifySubmissionEndpoint;
 import net.modgarden.backend.endpoint.v2.users.GetUserEndpoint;
 import net.modgarden.backend.endpoint.v2.users.ListUsersEndpoint;
-import net.modgarden.backend.util.AuthUtil;
+import net.modgarden.backend.util.Argon2Executor;
+import net.modgarden.backend.util.BoundedCache;
+import net.modgarden.backend.util.LinkCodeStore;
+import net.modgarden.backend.util.MaintenanceScheduler;
+import net.modgarden.backend.util.MetadataUtils;
+import net.modgarden.backend.util.codec.JsonSerializer;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
 
 public class ModGardenBackend {
 	public static final Dotenv DOTENV = Dotenv.load();
@@ -81,9 +111,18 @@ public class ModGardenBackend {
 	public static final Logger LOG = LoggerFactory.getLogger(ModGardenBackend.class);
 
 	private static final Map<Type, Codec<?>> CODEC_REGISTRY = new HashMap<>();
+	private static final Map<Type, JsonSerializer<?>> SERIALIZER_REGISTRY = new HashMap<>();
 
 	public static final HttpClient HTTP_CLIENT = HttpClient.newHttpClient();
 
+	private static DatabasePool writerPool;
+	private static DatabasePool readerPool;
+	private static WriteExecutor writeExecutor;
+	private static Argon2Executor argon2Executor;
+	private static ApiKeyUsageTracker apiKeyUsageTracker;
+	private static MaintenanceScheduler maintenanceScheduler;
+	private static LinkCodeStore linkCodeStore;
+
 	private final Javalin app;
 
 	private ModGardenBackend(Javalin app) {
@@ -99,17 +138,27 @@ public class ModGardenBackend {
 		try {
 			boolean createdFile = new File("./database.db").createNewFile();
 			DatabaseFixer.createFixers();
+			// Created before any pool is opened, as auto_vacuum can't be enabled once the file is in WAL mode.
 			if (createdFile) {
 				createDatabaseContents();
 				updateSchemaVersion();
 				LOG.debug("Successfully created database file.");
 			}
+			// The writer must be opened first, so the database is in WAL mode before any read-only connections open it.
+			writerPool = createWriterPool();
+			readerPool = createReaderPool();
+			writeExecutor = createWriteExecutor();
+			// Loaded before fixing, as data fixers may generate natural IDs too.
+			loadNaturalIds();
 			DatabaseFixer.fixDatabase();
 			if (!createdFile) {
 				updateSchemaVersion();
 			}
 		} catch (IOException ex) {
 			LOG.error("Failed to create database file.", ex);
+		} catch (SQLException ex) {
+			LOG.error("Failed to open database connection pools.", ex);
+			return;
 		}
 
 		registerCodec(LandingPage.class, LandingPage.CODEC);
@@ -123,17 +172,39 @@ public class ModGardenBackend {
 		registerCodec(UserRole.class, UserRole.DIRECT_CODEC);
 		registerCodec(AwardInstance.FullAwardData.class, AwardInstance.FullAwardData.CODEC);
 		registerCodec(GenerateKeyEndpoint.ApiKeyResponse.class, GenerateKeyEndpoint.ApiKeyResponse.CODEC);
+		registerCodec(CreateSessionEndpoint.SessionResponse.class, CreateSessionEndpoint.SessionResponse.CODEC);
 		registerCodec(ListKeysEndpoint.ApiKey.class, ListKeysEndpoint.ApiKey.CODEC);
 
-		AuthUtil.clearTokensEachFifteenMinutes();
-
-		Javalin app = Javalin.create(config -> config.jsonMapper(createDFUMapper()));
+		// Responses of these types are written without going through their codecs.
+		registerSerializer(Event.class, Event.SERIALIZER);
+		registerSerializer(Genre.class, Genre.SERIALIZER);
+		registerSerializer(Project.class, Project.SERIALIZER);
+		registerSerializer(Submission.class, Submission.SERIALIZER);
+		registerSerializer(User.class, User.SERIALIZER);
+		registerSerializer(UserRole.class, UserRole.SERIALIZER);
+
+		argon2Executor = createArgon2Executor();
+		apiKeyUsageTracker = new ApiKeyUsageTracker(writeExecutor);
+		String linkCodeSnapshotPath = DOTENV.get("LINK_CODE_SNAPSHOT_PATH");
+		linkCodeStore = LinkCodeStore.load(linkCodeSnapshotPath == null ? null : Path.of(linkCodeSnapshotPath));
+		maintenanceScheduler = createMaintenanceScheduler();
+
+		Javalin app = Javalin.create(config -> {
+			config.jsonMapper(createDFUMapper());
+			config.http.maxRequestSize = Endpoint.MAX_BODY_SIZE;
+		});
 		app.get("", LandingPage::getLandingJson);
 
 		ModGardenBackend backend = new ModGardenBackend(app);
 		backend.v2();
 		backend.internal();
 
+		app.exception(ServiceUnavailableException.class, (e, ctx) -> {
+			ctx.header(Header.RETRY_AFTER, Long.toString(e.getRetryAfter().toSeconds()));
+			ctx.status(e.getStatus());
+			ctx.result(e.getMessage());
+			ExceptionPage.handleError(ctx);
+		});
 		app.exception(HypertextException.class, (e, ctx) -> {
 			ctx.status(e.getStatus());
 			ctx.result(e.getMessage());
@@ -158,15 +229,41 @@ public class ModGardenBackend {
 			ExceptionPage.handleError(ctx);
 		});
 
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdown(app), "shutdown"));
 		app.start(7070);
 
 		LOG.info("Mod Garden Backend Started!");
 	}
 
+	/// Stops taking requests, then writes everything still held in memory before closing the database.
+	private static void shutdown(Javalin app) {
+		// Requests still being handled are finished first, as they may queue writes.
+		app.stop();
+		try {
+			maintenanceScheduler.close();
+			// Uses recorded since the last flush would otherwise be lost.
+			apiKeyUsageTracker.close();
+			try {
+				linkCodeStore.save();
+			} catch (IOException ex) {
+				LOG.warn("Failed to save link codes.", ex);
+			}
+			// Drained once nothing else can queue writes.
+			writeExecutor.close();
+			argon2Executor.close();
+		} catch (InterruptedException ex) {
+			LOG.warn("Interrupted whilst shutting down.", ex);
+			Thread.currentThread().interrupt();
+		}
+		readerPool.close();
+		writerPool.close();
+	}
+
 	public void v2() {
 		post(GenerateKeyEndpoint::new);
 		delete(DeleteKeyEndpoint::new);
 		get(ListKeysEndpoint::new);
+		post(CreateSessionEndpoint::new);
 
 		post(CreateProjectEndpoint::new);
 		patch(ModifyProjectEndpoint::new);
@@ -228,23 +325,195 @@ public class ModGardenBackend {
 	}
 
 	public static void registerDatabaseFunctions(Connection connection) throws SQLException {
-		GenerateNaturalIdFunction.INSTANCE.create(connection);
+		new GenerateNaturalIdFunction(connection).create(connection);
 		HasPermissionsFunction.INSTANCE.create(connection);
 		UnixMillisFunction.INSTANCE.create(connection);
 	}
 
+	/// @return the shared pool of read-only database connections. Prefer this over [#createDatabaseConnection()].
+	public static DatabasePool getReaderPool() {
+		return readerPool;
+	}
+
+	/// @return the pool holding the single database connection that may write.
+	/// Prefer this over [#createDatabaseConnection()].
+	public static DatabasePool getWriterPool() {
+		return writerPool;
+	}
+
+	public static WriteExecutor getWriteExecutor() {
+		return writeExecutor;
+	}
+
+	public static Argon2Executor getArgon2Executor() {
+		return argon2Executor;
+	}
+
+	public static ApiKeyUsageTracker getApiKeyUsageTracker() {
+		return apiKeyUsageTracker;
+	}
+
+	public static MaintenanceScheduler getMaintenanceScheduler() {
+		return maintenanceScheduler;
+	}
+
+	public static LinkCodeStore getLinkCodeStore() {
+		return linkCodeStore;
+	}
+
+	/// Opens a new, unpooled database connection which may write.
+	///
+	/// This is only intended for setting up the database and data-fixing. Use [#getWriterPool()] otherwise.
 	public static Connection createDatabaseConnection() throws SQLException {
+		return createDatabaseConnection(false);
+	}
+
+	private static Connection createDatabaseConnection(boolean readOnly) throws SQLException {
+		return createDatabaseConnection(readOnly, !readOnly);
+	}
+
+	/// @param walMode whether to switch the database to WAL mode, which must only be left out for creating a new
+	/// database, before the `auto_vacuum` mode is set.
+	private static Connection createDatabaseConnection(boolean readOnly, boolean walMode) throws SQLException {
 		String url = "jdbc:sqlite:database.db";
-		Properties props = new Properties();
-		props.setProperty("foreign_keys", "true");
-		Connection connection = DriverManager.getConnection(url, props);
+		SQLiteConfig config = new SQLiteConfig();
+		config.enforceForeignKeys(true);
+		config.setReadOnly(readOnly);
+		if (walMode) {
+			// WAL is persisted in the database file, so read-only connections pick it up on their own.
+			config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+		}
+		config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(
+				DOTENV.get("DATABASE_SYNCHRONOUS", "NORMAL").toUpperCase(Locale.ROOT)));
+		config.setTempStore(SQLiteConfig.TempStore.valueOf(
+				DOTENV.get("DATABASE_TEMP_STORE", "MEMORY").toUpperCase(Locale.ROOT)));
+		config.setBusyTimeout(Integer.parseInt(DOTENV.get("DATABASE_BUSY_TIMEOUT_MS", "5000")));
+		// Negative values are in KiB rather than pages.
+		config.setCacheSize(Integer.parseInt(DOTENV.get("DATABASE_CACHE_SIZE", "-16384")));
+		config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, DOTENV.get("DATABASE_MMAP_SIZE", "268435456"));
+
+		Connection connection = DriverManager.getConnection(url, config.toProperties());
 		registerDatabaseFunctions(connection);
 		return connection;
 	}
 
-	private static void createDatabaseContents() {
-		try (Connection connection = createDatabaseConnection();
+	private static DatabasePool createWriterPool() throws SQLException {
+		Duration acquireTimeout = Duration.ofMillis(Long.parseLong(DOTENV.get("DATABASE_POOL_TIMEOUT_MS", "5000")));
+		int statementCacheSize = Integer.parseInt(DOTENV.get("DATABASE_STATEMENT_CACHE_SIZE", "64"));
+
+		// SQLite only allows one writer at a time anyway, so queue writes here instead of in SQLITE_BUSY retries.
+		DatabasePool pool = DatabasePool.create(() -> createDatabaseConnection(false), 1, acquireTimeout, statementCacheSize);
+		LOG.debug("Opened database writer connection.");
+		return pool;
+	}
+
+	private static DatabasePool createReaderPool() throws SQLException {
+		int size = Integer.parseInt(DOTENV.get(
+				"DATABASE_POOL_SIZE",
+				Integer.toString(Math.max(4, Runtime.getRuntime().availableProcessors()))
+		));
+		Duration acquireTimeout = Duration.ofMillis(Long.parseLong(DOTENV.get("DATABASE_POOL_TIMEOUT_MS", "5000")));
+		int statementCacheSize = Integer.parseInt(DOTENV.get("DATABASE_STATEMENT_CACHE_SIZE", "64"));
+
+		DatabasePool pool = DatabasePool.create(() -> createDatabaseConnection(true), size, acquireTimeout, statementCacheSize);
+		LOG.debug("Opened database reader pool with {} connections.", size);
+		return pool;
+	}
+
+	private static void loadNaturalIds() throws SQLException {
+		try (Connection connection = createDatabaseConnection(true)) {
+			NaturalIdAllocator.loadAll(connection);
+		}
+	}
+
+	private static WriteExecutor createWriteExecutor() {
+		int maxBatchSize = Integer.parseInt(DOTENV.get("DATABASE_GROUP_COMMIT_MAX_SIZE", "32"));
+		Duration maxBatchDelay = Duration.ofMillis(Long.parseLong(DOTENV.get("DATABASE_GROUP_COMMIT_MAX_DELAY_MS", "2")));
+		Duration timeout = Duration.ofMillis(Long.parseLong(DOTENV.get("DATABASE_WRITE_TIMEOUT_MS", "10000")));
+
+		return new WriteExecutor(writerPool, maxBatchSize, maxBatchDelay, timeout);
+	}
+
+	private static Argon2Executor createArgon2Executor() {
+		long memoryBudgetKib = Long.parseLong(DOTENV.get("ARGON2_MEMORY_BUDGET_MIB", "128")) * 1024;
+		int queueSize = Integer.parseInt(DOTENV.get("ARGON2_QUEUE_SIZE", "64"));
+		Duration maxWait = Duration.ofMillis(Long.parseLong(DOTENV.get("ARGON2_MAX_WAIT_MS", "5000")));
+
+		int memoryKib = Integer.parseInt(DOTENV.get("ARGON2_MEMORY_KIB", Integer.toString(Argon2Executor.MINIMUM_PARAMETERS.memoryKib())));
+		int parallelism = Integer.parseInt(DOTENV.get("ARGON2_PARALLELISM", Integer.toString(Argon2Executor.MINIMUM_PARAMETERS.parallelism())));
+		String iterations = DOTENV.get("ARGON2_ITERATIONS");
+		Argon2Executor.Parameters parameters;
+		if (iterations != null) {
+			parameters = new Argon2Executor.Parameters(Integer.parseInt(iterations), memoryKib, parallelism);
+		} else {
+			Duration targetLatency = Duration.ofMillis(Long.parseLong(DOTENV.get("ARGON2_TARGET_LATENCY_MS", "100")));
+			Path parametersPath = Path.of(DOTENV.get("ARGON2_PARAMETERS_PATH", "./argon2_parameters.txt"));
+			try {
+				parameters = Argon2Executor.loadOrCalibrate(parametersPath, memoryKib, parallelism, targetLatency);
+				LOG.info("Using Argon2id parameters {}, pinned in {}.", parameters, parametersPath);
+			} catch (IOException ex) {
+				parameters = Argon2Executor.calibrate(memoryKib, parallelism, targetLatency);
+				LOG.warn("Failed to pin Argon2id parameters in {}, calibrated to {} for this run only.", parametersPath, parameters, ex);
+			}
+		}
+
+		return new Argon2Executor(parameters, memoryBudgetKib, queueSize, maxWait);
+	}
+
+	private static MaintenanceScheduler createMaintenanceScheduler() {
+		MaintenanceScheduler scheduler = new MaintenanceScheduler();
+
+		scheduler.register("api-key-usage", Duration.ofSeconds(Long.parseLong(DOTENV.get("API_KEY_USAGE_FLUSH_SECONDS", "60"))),
+				() -> apiKeyUsageTracker.flush().join());
+		scheduler.register("expired-link-codes", Duration.ofMinutes(1), () -> {
+			int removed = linkCodeStore.expire(Instant.now());
+			LOG.debug("Cleared {} link codes.", removed);
+		});
+		// Nothing new is written to the table, so this only clears codes created before they were kept in memory.
+		scheduler.register("expired-database-link-codes", Duration.ofHours(1), () -> {
+			int deleted = writeExecutor.execute(() -> DatabaseAccess.get().deleteExpiredLinkCodes(Instant.now()));
+			LOG.debug("Cleared {} link codes from the database.", deleted);
+		});
+		scheduler.register("expired-api-keys", Duration.ofHours(1), () -> {
+			int deleted = writeExecutor.execute(() -> DatabaseAccess.get().deleteExpiredApiKeys(Instant.now()));
+			LOG.debug("Cleared {} expired API keys.", deleted);
+		});
+		scheduler.register("temporary-files", Duration.ofHours(1), () -> {
+			int deleted = MetadataUtils.sweepTemporaryFiles(Duration.ofHours(1));
+			LOG.debug("Cleared {} temporary files.", deleted);
+		});
+		scheduler.register("wal-checkpoint", Duration.ofMinutes(5), DatabaseMaintenance::checkpoint);
+		scheduler.register("optimize", Duration.ofHours(6), DatabaseMaintenance::optimize);
+		scheduler.register("incremental-vacuum", Duration.ofDays(1), DatabaseMaintenance::incrementalVacuum);
+		scheduler.register("metrics", Duration.ofMinutes(Long.parseLong(DOTENV.get("METRICS_LOG_MINUTES", "15"))),
+				ModGardenBackend::logMetrics);
+
+		return scheduler;
+	}
+
+	/// Logs a snapshot of every pool, executor and cache's usage, so they can be tuned from the logs.
+	private static void logMetrics() {
+		LOG.info("Reader pool: {}", readerPool.getMetrics());
+		LOG.info("Writer pool: {}", writerPool.getMetrics());
+		LOG.info("Write executor: {}", writeExecutor.getMetrics());
+		LOG.info("Argon2 executor: {}", argon2Executor.getMetrics());
+		for (BoundedCache.Metrics metrics : EntityCaches.getMetrics()) {
+			LOG.info("Entity cache: {}", metrics);
+		}
+		LOG.info("Credential cache: {}", CredentialCache.get().getMetrics());
+		LOG.info("Rendered response cache: {}", RenderedResponseCache.get().getMetrics());
+		for (MaintenanceScheduler.Metrics metrics : maintenanceScheduler.getMetrics()) {
+			LOG.info("Maintenance job: {}", metrics);
+		}
+	}
+
+	/// Creates every table, index and trigger of the latest schema version in a new database.
+	public static void createDatabaseContents() {
+		try (Connection connection = createDatabaseConnection(false, false);
 			 Statement statement = connection.createStatement()) {
+			// Must be set before any tables are created, and before the file is switched to WAL mode. Free pages are
+			// returned by the incremental-vacuum job.
+			statement.addBatch("PRAGMA auto_vacuum = INCREMENTAL");
 			statement.addBatch("""
 			CREATE TABLE IF NOT EXISTS users (
 				id TEXT UNIQUE NOT NULL,
@@ -271,6 +540,9 @@ public class ModGardenBackend {
 			)
 			""");
 			statement.addBatch("""
+			CREATE INDEX idx_user_role_integration_discord_discord_role_id ON user_role_integration_discord(discord_role_id, role_id)
+			""");
+			statement.addBatch("""
 			CREATE TABLE IF NOT EXISTS user_roles (
 				role_id TEXT NOT NULL,
 				user_id TEXT NOT NULL,
@@ -282,6 +554,9 @@ public class ModGardenBackend {
 			CREATE UNIQUE INDEX idx_user_roles_two_ids ON user_roles(role_id, user_id)
 			""");
 			statement.addBatch("""
+			CREATE INDEX idx_user_roles_user_id ON user_roles(user_id, role_id)
+			""");
+			statement.addBatch("""
 			CREATE TRIGGER user_role_trigger_insert INSERT ON user_roles BEGIN
 				UPDATE users SET permissions = permissions | role_permissions FROM (
 					SELECT permissions AS role_permissions FROM user_role_definitions WHERE id = NEW.role_id
@@ -331,11 +606,16 @@ public class ModGardenBackend {
 				hash TEXT NOT NULL,
 				expires INTEGER NOT NULL,
 				name TEXT NOT NULL,
+				use_count INTEGER NOT NULL DEFAULT 0,
+				last_used INTEGER,
 				FOREIGN KEY (user_id) REFERENCES users(id) ON UPDATE CASCADE ON DELETE CASCADE,
 				PRIMARY KEY (uuid)
 			)
 			""");
 			statement.addBatch("""
+			CREATE INDEX idx_api_keys_user_id ON api_keys(user_id)
+			""");
+			statement.addBatch("""
 			CREATE TABLE IF NOT EXISTS api_key_scopes (
 				uuid BLOB NOT NULL,
 				scope TEXT NOT NULL CHECK (scope in ('PROJECT', 'USER')),
@@ -372,6 +652,9 @@ public class ModGardenBackend {
 			)
 			""");
 			statement.addBatch("""
+			CREATE INDEX idx_user_integration_discord_discord_id ON user_integration_discord(discord_id, user_id)
+			""");
+			statement.addBatch("""
 			CREATE TABLE IF NOT EXISTS user_integration_minecraft (
 				user_id TEXT NOT NULL,
 				uuid TEXT UNIQUE NOT NULL,
@@ -380,6 +663,9 @@ public class ModGardenBackend {
 			)
 			""");
 			statement.addBatch("""
+			CREATE INDEX idx_user_integration_minecraft_user_id ON user_integration_minecraft(user_id, uuid)
+			""");
+			statement.addBatch("""
 			CREATE TABLE IF NOT EXISTS events (
 				id TEXT UNIQUE NOT NULL,
 				slug TEXT UNIQUE NOT NULL,
@@ -389,6 +675,9 @@ public class ModGardenBackend {
 			)
 			""");
 			statement.addBatch("""
+			CREATE INDEX idx_events_genre_slug ON events(genre_slug)
+			""");
+			statement.addBatch("""
 			CREATE TABLE IF NOT EXISTS event_metadata (
 				event_id TEXT UNIQUE NOT NULL,
 				name TEXT NOT NULL,
@@ -419,6 +708,9 @@ public class ModGardenBackend {
 			)
 			""");
 			statement.addBatch("""
+			CREATE INDEX idx_event_roles_event_id ON event_roles(event_id, role_key, role_id)
+			""");
+			statement.addBatch("""
 			CREATE TABLE IF NOT EXISTS event_platform_minecraft (
 				event_id TEXT UNIQUE NOT NULL,
 				mod_loader TEXT NOT NULL,
@@ -453,6 +745,9 @@ public class ModGardenBackend {
 				)
 			""");
 			statement.addBatch("""
+			CREATE INDEX idx_project_mod_metadata_mod_id ON project_mod_metadata(mod_id)
+			""");
+			statement.addBatch("""
 			CREATE TABLE IF NOT EXISTS project_roles (
 				project_id TEXT NOT NULL,
 				user_id TEXT NOT NULL,
@@ -467,6 +762,9 @@ public class ModGardenBackend {
 			CREATE UNIQUE INDEX idx_project_roles_two_ids ON project_roles(project_id, user_id)
 			""");
 			statement.addBatch("""
+			CREATE INDEX idx_project_roles_user_id ON project_roles(user_id, project_id)
+			""");
+			statement.addBatch("""
 			CREATE TABLE IF NOT EXISTS submissions (
 				id TEXT UNIQUE NOT NULL,
 				event_id TEXT NOT NULL,
@@ -478,6 +776,12 @@ public class ModGardenBackend {
 			)
 			""");
 			statement.addBatch("""
+			CREATE INDEX idx_submissions_event_id ON submissions(event_id)
+			""");
+			statement.addBatch("""
+			CREATE INDEX idx_submissions_project_id ON submissions(project_id)
+			""");
+			statement.addBatch("""
 			CREATE TABLE IF NOT EXISTS submission_platform_modrinth (
 				submission_id TEXT NOT NULL,
 				modrinth_id TEXT NOT NULL,
@@ -527,6 +831,7 @@ public class ModGardenBackend {
 				PRIMARY KEY (code)
 			)
 			""");
+			ChangeVersions.addCreateStatements(statement);
 
 			statement.executeBatch();
 		} catch (SQLException ex) {
@@ -541,7 +846,8 @@ public class ModGardenBackend {
 		}
 	}
 
-	private static void updateSchemaVersion() {
+	/// Records the latest schema version in the database, so none of the [DatabaseFixer]s run against it again.
+	public static void updateSchemaVersion() {
 		try (Connection connection = createDatabaseConnection();
 			 Statement statement = connection.createStatement()) {
 			statement.addBatch("CREATE TABLE IF NOT EXISTS schema (version INTEGER NOT NULL, PRIMARY KEY(version))");
@@ -562,6 +868,10 @@ public class ModGardenBackend {
 		CODEC_REGISTRY.put(type, codec);
 	}
 
+	private static <T> void registerSerializer(Class<T> type, JsonSerializer<T> serializer) {
+		SERIALIZER_REGISTRY.put(type, serializer);
+	}
+
 	private static JsonMapper createDFUMapper() {
 		// Primitives
 		registerCodec(String.class, Codec.STRING);
@@ -574,35 +884,54 @@ public class ModGardenBackend {
 				if (obj instanceof JsonElement)
 					return GSON.toJson(obj);
 
-				if (obj instanceof Collection<?> collection) {
-					if (collection.isEmpty()) {
-						return "[]";
-					} else {
-						StringBuilder builder = new StringBuilder().append('[');
-
-						int i = 0;
-						for (Object inner : collection) {
-							if (i > 0) {
-								builder.append(',');
-							}
+				StringWriter writer = new StringWriter();
+				try {
+					this.write(JsonSerializer.GSON.newJsonWriter(writer), obj, type);
+				} catch (IOException ex) {
+					throw new UncheckedIOException("Failed to write JSON string.", ex);
+				}
+				return writer.toString();
+			}
 
-							builder.append(this.toJsonString(inner, inner.getClass()));
-							i++;
-						}
+			// Each element is written as soon as it's encoded, so a lazy stream is never held in memory in full.
+			@Override
+			public void writeToOutputStream(@NotNull Stream<?> stream, @NotNull OutputStream outputStream) {
+				try (stream) {
+					JsonWriter writer = JsonSerializer.GSON.newJsonWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+					this.write(writer, stream, Stream.class);
+					writer.flush();
+				} catch (IOException ex) {
+					throw new UncheckedIOException("Failed to write JSON output stream.", ex);
+				}
+			}
 
-						builder.append(']');
+			private void write(JsonWriter writer, Object obj, Type type) throws IOException {
+				if (obj instanceof JsonElement element) {
+					JsonSerializer.GSON.toJson(element, writer);
+					return;
+				}
 
-						return builder.toString();
+				if (obj instanceof Iterable<?> || obj instanceof Stream<?>) {
+					Iterator<?> iterator = obj instanceof Stream<?> stream ? stream.iterator() : ((Iterable<?>) obj).iterator();
+					writer.beginArray();
+					while (iterator.hasNext()) {
+						Object inner = iterator.next();
+						this.write(writer, inner, inner.getClass());
 					}
+					writer.endArray();
+					return;
+				}
+
+				if (SERIALIZER_REGISTRY.containsKey(type)) {
+					//noinspection unchecked
+					((JsonSerializer<Object>) SERIALIZER_REGISTRY.get(type)).write(writer, obj);
+					return;
 				}
 
 				if (!CODEC_REGISTRY.containsKey(type))
 					throw new UnsupportedOperationException("Cannot encode object type " + type);
 				//noinspection unchecked
-				return ((Codec<Object>)CODEC_REGISTRY.get(type))
-						.encodeStart(JsonOps.INSTANCE, obj)
-						.getOrThrow()
-						.toString();
+				JsonSerializer.fromCodec((Codec<Object>) CODEC_REGISTRY.get(type)).write(writer, obj);
 			}
 
 			@SuppressWarnings("unchecked")
@@ -1,9 +1,5 @@
 package net.modgarden.backend.data;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Locale;
@@ -12,9 +8,7 @@ import java.util.stream.Collectors;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
-import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.util.codec.ExtraCodecs;
-import org.jetbrains.annotations.Nullable;
 
 public record LinkCode(String code, String accountId, Service service, Instant expires) {
     public static final Codec<LinkCode> CODEC = RecordCodecBuilder.create(inst -> inst.group(
@@ -24,28 +18,6 @@ public record LinkCode(String code, String accountId, Service service, Instant e
             ExtraCodecs.INSTANT_CODEC.fieldOf("expires").forGetter(LinkCode::expires)
     ).apply(inst, LinkCode::new));
 
-    @Nullable
-    private static LinkCode query(String code) {
-        try (Connection connection = ModGardenBackend.createDatabaseConnection();
-             PreparedStatement prepared = connection.prepareStatement("SELECT * FROM link_codes WHERE code=?")) {
-            prepared.setString(1, code);
-            ResultSet result = prepared.executeQuery();
-            if (!result.isBeforeFirst())
-                return null;
-			var serviceString = result.getString("service");
-			var service = Service.valueOf(serviceString.toUpperCase(Locale.ROOT));
-			return new LinkCode(
-					result.getString("code"),
-					result.getString("account_id"),
-					service,
-					Instant.ofEpochMilli(result.getLong("expires"))
-			);
-		} catch (SQLException ex) {
-            ModGardenBackend.LOG.error("Exception in SQL query.", ex);
-        }
-        return null;
-    }
-
     public enum Service {
         MODRINTH,
         MINECRAFT;
@@ -8,7 +8,6 @@ import java.sql.SQLException;
 import java.util.random.RandomGenerator;
 import java.util.regex.Pattern;
 
-import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.oauth.OAuthService;
 import net.modgarden.backend.oauth.client.BunnyCdnOAuthClient;
 import org.jetbrains.annotations.NotNull;
@@ -44,29 +43,39 @@ public final class NaturalId {
 		return builder.toString();
 	}
 
+	/// Generates a natural ID which is not yet used in the given columns of a table.
+	///
+	/// Tables with a [NaturalIdAllocator] are allocated in memory, anything else is checked against the database.
+	///
+	/// @param connection the connection the ID will be inserted with, so that it also sees uncommitted rows.
 	@NotNull
-	public static String generate(String table,
+	public static String generate(Connection connection,
+								  String table,
 								  String key,
 								  @Nullable String key2,
 								  int length) throws SQLException {
+		NaturalIdAllocator allocator = NaturalIdAllocator.get(table);
+		if (allocator != null && key.equals("id") && key2 == null && length == NaturalIdAllocator.LENGTH) {
+			return allocator.allocate();
+		}
+
 		String id = null;
-		try (Connection connection1 = ModGardenBackend.createDatabaseConnection()) {
+		String sql;
+		// Column names can't be bound as parameters, but these only ever come from our own SQL.
+		if (key2 != null) {
+			sql = "SELECT 1 FROM " + table + " WHERE " + key + " = ? OR " + key2 + " = ?";
+		} else {
+			sql = "SELECT 1 FROM " + table + " WHERE " + key + " = ?";
+		}
+		try (PreparedStatement exists = connection.prepareStatement(sql)) {
 			while (id == null) {
 				String naturalId = generateUnchecked(length);
-				PreparedStatement exists;
-				if (key2 != null) {
-					exists = connection1.prepareStatement("SELECT 1 FROM " + table + " WHERE ? = ? OR ? = ?");
-				} else {
-					exists = connection1.prepareStatement("SELECT 1 FROM " + table + " WHERE ? = ?");
-				}
-				exists.setString(1, key);
-				exists.setString(2, naturalId);
+				exists.setString(1, naturalId);
 				if (key2 != null) {
-					exists.setString(3, key2);
-					exists.setString(4, naturalId);
+					exists.setString(2, naturalId);
 				}
 				ResultSet resultSet = exists.executeQuery();
-				if (!resultSet.getBoolean(1) && !isReserved(naturalId)) {
+				if (!resultSet.isBeforeFirst() && !isReserved(naturalId)) {
 					id = naturalId;
 				}
 			}
@@ -0,0 +1,125 @@
+package net.modgarden.backend.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+
+import net.modgarden.backend.ModGardenBackend;
+import org.jetbrains.annotations.Nullable;
+
+/// Hands out natural IDs for a table without querying it, by keeping every ID in that table in memory.
+///
+/// Each 5-letter ID maps onto a single bit, so a table's IDs take up at most 26^5 bits (about 1.4 MiB), no matter
+/// how many rows it has. IDs are marked as taken as soon as they're allocated, so concurrent requests never receive
+/// the same one. An allocated ID is never freed, even if the row is never inserted or later deleted, as there are
+/// far more IDs than rows.
+///
+/// Rows inserted some other way (e.g. by hand) are not tracked, so inserts should still retry with another ID on a
+/// primary key collision. The colliding ID stays marked as taken, so it is never handed out again.
+public final class NaturalIdAllocator {
+	public static final int LENGTH = 5;
+	private static final int RADIX = 26;
+	private static final int CAPACITY = (int) Math.pow(RADIX, LENGTH);
+
+	private static final Map<String, NaturalIdAllocator> ALLOCATORS = List.of(
+			"users",
+			"projects",
+			"submissions",
+			"events",
+			"user_role_definitions"
+	).stream().collect(Collectors.toUnmodifiableMap(table -> table, NaturalIdAllocator::new));
+
+	private final String table;
+	private final BitSet taken = new BitSet(CAPACITY);
+
+	private NaturalIdAllocator(String table) {
+		this.table = table;
+	}
+
+	/// @return the allocator for the `id` column of a table, or null if the table's IDs are not allocated in memory.
+	@Nullable
+	public static NaturalIdAllocator get(String table) {
+		return ALLOCATORS.get(table);
+	}
+
+	/// Loads the existing IDs of every table. Tables which don't exist yet are treated as empty.
+	public static void loadAll(Connection connection) throws SQLException {
+		for (NaturalIdAllocator allocator : ALLOCATORS.values()) {
+			allocator.load(connection);
+		}
+	}
+
+	private void load(Connection connection) throws SQLException {
+		try (PreparedStatement tableStatement = connection.prepareStatement("""
+				SELECT 1
+				FROM sqlite_master
+				WHERE type = 'table' AND name = ?
+			""")) {
+			tableStatement.setString(1, this.table);
+			if (!tableStatement.executeQuery().isBeforeFirst()) {
+				return;
+			}
+		}
+
+		int count = 0;
+		try (PreparedStatement idStatement = connection.prepareStatement("SELECT id FROM " + this.table)) {
+			ResultSet idResult = idStatement.executeQuery();
+			synchronized (this) {
+				while (idResult.next()) {
+					int index = indexOf(idResult.getString("id"));
+					if (index != -1) {
+						this.taken.set(index);
+						count++;
+					}
+				}
+			}
+		}
+		ModGardenBackend.LOG.debug("Loaded {} natural IDs from '{}'.", count, this.table);
+	}
+
+	/// @return a new ID which is not reserved, and has not been allocated or loaded before.
+	public synchronized String allocate() {
+		RandomGenerator random = RandomGenerator.getDefault();
+		while (true) {
+			int index = random.nextInt(CAPACITY);
+			if (this.taken.get(index)) {
+				continue;
+			}
+
+			String id = idOf(index);
+			// Reserved IDs are marked as taken too, so they're only checked against the pattern once.
+			this.taken.set(index);
+			if (!NaturalId.isReserved(id)) {
+				return id;
+			}
+		}
+	}
+
+	/// @return the index of a natural ID, or -1 if it is not a valid natural ID.
+	private static int indexOf(@Nullable String id) {
+		if (id == null || !NaturalId.isValid(id)) {
+			return -1;
+		}
+
+		int index = 0;
+		for (int i = 0; i < LENGTH; i++) {
+			index = index * RADIX + (id.charAt(i) - 'a');
+		}
+		return index;
+	}
+
+	private static String idOf(int index) {
+		char[] chars = new char[LENGTH];
+		for (int i = LENGTH - 1; i >= 0; i--) {
+			chars[i] = (char) ('a' + index % RADIX);
+			index /= RADIX;
+		}
+		return new String(chars);
+	}
+}
@@ -2,20 +2,17 @@ package net.modgarden.backend.data.event;
 
 import static java.util.Map.entry;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.Collections;
 import java.util.Map;
 
 import com.mojang.serialization.Codec;
-import com.mojang.serialization.DataResult;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
-import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.data.event.game.MinecraftEventPlatform;
 import net.modgarden.backend.data.user.role.UserRole;
+import net.modgarden.backend.util.codec.IdCodec;
+import net.modgarden.backend.util.codec.JsonSerializer;
+import net.modgarden.backend.util.codec.ObjectSerializer;
 
 public record Event(String id,
 					String slug,
@@ -50,18 +47,13 @@ public record Event(String id,
 					.optionalFieldOf("roles", Collections.emptyMap())
 					.forGetter(Event::roles)
 	).apply(inst, Event::new)));
-    public static final Codec<String> ID_CODEC = Codec.STRING.validate(Event::validate);
-
-    private static DataResult<String> validate(String id) {
-        try (Connection connection = ModGardenBackend.createDatabaseConnection();
-			 PreparedStatement prepared = connection.prepareStatement("SELECT 1 FROM events WHERE id = ?")) {
-			prepared.setString(1, id);
-			ResultSet result = prepared.executeQuery();
-			if (result != null && result.getBoolean(1))
-				return DataResult.success(id);
-		} catch (SQLException ex) {
-			ModGardenBackend.LOG.error("Exception in SQL query.", ex);
-		}
-		return DataResult.error(() -> "Failed to get event with id '" + id + "'");
-	}
+	public static final JsonSerializer<Event> SERIALIZER = ObjectSerializer.<Event>builder()
+			.field("id", Event::id, JsonSerializer.STRING)
+			.field("slug", Event::slug, JsonSerializer.STRING)
+			.field("metadata", Event::metadata, EventMetadata.SERIALIZER)
+			.field("times", Event::times, EventTimes.SERIALIZER)
+			.field("platform", Event::platform, JsonSerializer.fromCodec(PLATFORM_CODEC))
+			.optionalField("roles", Event::roles, JsonSerializer.map(JsonSerializer.STRING), Collections.emptyMap())
+			.build();
+    public static final Codec<String> ID_CODEC = IdCodec.of("events", "event");
 }
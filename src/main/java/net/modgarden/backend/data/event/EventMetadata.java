@@ -3,7 +3,9 @@ package net.modgarden.backend.data.event;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import net.modgarden.backend.util.NullableWrapper;
+import net.modgarden.backend.util.codec.JsonSerializer;
 import net.modgarden.backend.util.codec.NullableCodec;
+import net.modgarden.backend.util.codec.ObjectSerializer;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
@@ -21,6 +23,10 @@ public record EventMetadata(
 					.forGetter(md -> Optional.ofNullable(md.description))
 	).apply(instance, (name, description) ->
 			new EventMetadata(name, description.orElse(null))));
+	public static final JsonSerializer<EventMetadata> SERIALIZER = ObjectSerializer.<EventMetadata>builder()
+			.field("name", EventMetadata::name, JsonSerializer.STRING)
+			.optionalField("description", EventMetadata::description, JsonSerializer.STRING)
+			.build();
 
 	public record Modifiable(
 			@Nullable String name,
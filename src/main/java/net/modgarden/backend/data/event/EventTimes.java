@@ -4,7 +4,9 @@ import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import net.modgarden.backend.util.NullableWrapper;
 import net.modgarden.backend.util.codec.ExtraCodecs;
+import net.modgarden.backend.util.codec.JsonSerializer;
 import net.modgarden.backend.util.codec.NullableCodec;
+import net.modgarden.backend.util.codec.ObjectSerializer;
 import org.jetbrains.annotations.Nullable;
 
 import java.time.Instant;
@@ -22,6 +24,13 @@ public record EventTimes(Instant registrationOpen,
 			ExtraCodecs.INSTANT_CODEC.fieldOf("development_end").forGetter(EventTimes::developmentEnd),
 			ExtraCodecs.INSTANT_CODEC.fieldOf("pack_freeze").forGetter(EventTimes::packFreeze)
 	).apply(inst, EventTimes::new));
+	public static final JsonSerializer<EventTimes> SERIALIZER = ObjectSerializer.<EventTimes>builder()
+			.field("registration_open", EventTimes::registrationOpen, JsonSerializer.INSTANT)
+			.field("registration_close", EventTimes::registrationClose, JsonSerializer.INSTANT)
+			.field("development_start", EventTimes::developmentStart, JsonSerializer.INSTANT)
+			.field("development_end", EventTimes::developmentEnd, JsonSerializer.INSTANT)
+			.field("pack_freeze", EventTimes::packFreeze, JsonSerializer.INSTANT)
+			.build();
 
 	public record Modifiable(@Nullable Instant registrationOpen,
 	                         @Nullable Instant registrationClose,
@@ -5,6 +5,8 @@ import java.util.List;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.modgarden.backend.util.codec.JsonSerializer;
+import net.modgarden.backend.util.codec.ObjectSerializer;
 
 public record Genre(
 		String id,
@@ -19,6 +21,12 @@ public record Genre(
 			EventMetadata.CODEC.fieldOf("metadata").forGetter(Genre::metadata),
 			Codec.list(Event.ID_CODEC).fieldOf("events").forGetter(Genre::events)
 	).apply(instance, Genre::new)));
+	public static final JsonSerializer<Genre> SERIALIZER = ObjectSerializer.<Genre>builder()
+			.field("id", Genre::id, JsonSerializer.STRING)
+			.field("slug", Genre::slug, JsonSerializer.STRING)
+			.field("metadata", Genre::metadata, EventMetadata.SERIALIZER)
+			.field("events", Genre::events, JsonSerializer.list(JsonSerializer.STRING))
+			.build();
 	public static Genre MOD_GARDEN;
 
 	private static DataResult<String> validate(String id) {
@@ -15,6 +15,11 @@ import net.modgarden.backend.data.fixer.fix.V2ToV3;
 import net.modgarden.backend.data.fixer.fix.V3ToV4;
 import net.modgarden.backend.data.fixer.fix.V4ToV5;
 import net.modgarden.backend.data.fixer.fix.V5ToV6;
+import net.modgarden.backend.data.fixer.fix.V6ToV7;
+import net.modgarden.backend.data.fixer.fix.V7ToV8;
+import net.modgarden.backend.data.fixer.fix.V8ToV9;
+import net.modgarden.backend.data.fixer.fix.V9ToV10;
+import net.modgarden.backend.data.fixer.fix.V10ToV11;
 
 public class DatabaseFixer {
 	private static final List<DatabaseFix> FIXES = new ObjectArrayList<>();
@@ -26,7 +31,12 @@ public class DatabaseFixer {
 				new V2ToV3(),
 				new V3ToV4(),
 				new V4ToV5(),
-				new V5ToV6()
+				new V5ToV6(),
+				new V6ToV7(),
+				new V7ToV8(),
+				new V8ToV9(),
+				new V9ToV10(),
+				new V10ToV11()
 		);
 	}
 
@@ -0,0 +1,39 @@
+package net.modgarden.backend.data.fixer.fix;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import net.modgarden.backend.data.fixer.DatabaseFix;
+import org.jetbrains.annotations.Nullable;
+
+/// Adds indexes for the remaining lookups which were full table scans, found by checking the query plan of every
+/// statement.
+public class V10ToV11 extends DatabaseFix {
+	public V10ToV11() {
+		super(10);
+	}
+
+	@Override
+	public @Nullable Consumer<Connection> fix(Connection connection) throws SQLException {
+		var statement = connection.createStatement();
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_user_roles_user_id ON user_roles(user_id, role_id)
+		""");
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_user_role_integration_discord_discord_role_id ON user_role_integration_discord(discord_role_id, role_id)
+		""");
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_user_integration_minecraft_user_id ON user_integration_minecraft(user_id, uuid)
+		""");
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_events_genre_slug ON events(genre_slug)
+		""");
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_event_roles_event_id ON event_roles(event_id, role_key, role_id)
+		""");
+		statement.addBatch("ANALYZE");
+		statement.executeBatch();
+		return null;
+	}
+}
@@ -0,0 +1,44 @@
+package net.modgarden.backend.data.fixer.fix;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import net.modgarden.backend.data.fixer.DatabaseFix;
+import org.jetbrains.annotations.Nullable;
+
+/// Adds indexes for columns that are looked up often, which were previously full table scans.
+///
+/// Indexes that are only filtered by one column are kept to that column, so SQLite can still walk them in `ROWID`
+/// order for keyset pagination. The rest also contain the column they're queried for, so they cover the query.
+public class V6ToV7 extends DatabaseFix {
+	public V6ToV7() {
+		super(6);
+	}
+
+	@Override
+	public @Nullable Consumer<Connection> fix(Connection connection) throws SQLException {
+		var statement = connection.createStatement();
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_submissions_event_id ON submissions(event_id)
+		""");
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_submissions_project_id ON submissions(project_id)
+		""");
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_project_roles_user_id ON project_roles(user_id, project_id)
+		""");
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_api_keys_user_id ON api_keys(user_id)
+		""");
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_user_integration_discord_discord_id ON user_integration_discord(discord_id, user_id)
+		""");
+		statement.addBatch("""
+		CREATE INDEX IF NOT EXISTS idx_project_mod_metadata_mod_id ON project_mod_metadata(mod_id)
+		""");
+		statement.addBatch("ANALYZE");
+		statement.executeBatch();
+		return null;
+	}
+}
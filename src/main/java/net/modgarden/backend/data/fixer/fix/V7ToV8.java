@@ -0,0 +1,24 @@
+package net.modgarden.backend.data.fixer.fix;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import net.modgarden.backend.data.fixer.DatabaseFix;
+import net.modgarden.backend.database.ChangeVersions;
+import org.jetbrains.annotations.Nullable;
+
+/// Adds `change_versions`, along with the triggers which keep it up to date, for conditional requests.
+public class V7ToV8 extends DatabaseFix {
+	public V7ToV8() {
+		super(7);
+	}
+
+	@Override
+	public @Nullable Consumer<Connection> fix(Connection connection) throws SQLException {
+		var statement = connection.createStatement();
+		ChangeVersions.addCreateStatements(statement);
+		statement.executeBatch();
+		return null;
+	}
+}
@@ -0,0 +1,24 @@
+package net.modgarden.backend.data.fixer.fix;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import net.modgarden.backend.data.fixer.DatabaseFix;
+import org.jetbrains.annotations.Nullable;
+
+/// Adds how many times each API key has been used, and when it was last used, so that unused keys can be found.
+public class V8ToV9 extends DatabaseFix {
+	public V8ToV9() {
+		super(8);
+	}
+
+	@Override
+	public @Nullable Consumer<Connection> fix(Connection connection) throws SQLException {
+		var statement = connection.createStatement();
+		statement.addBatch("ALTER TABLE api_keys ADD COLUMN use_count INTEGER NOT NULL DEFAULT 0");
+		statement.addBatch("ALTER TABLE api_keys ADD COLUMN last_used INTEGER");
+		statement.executeBatch();
+		return null;
+	}
+}
@@ -0,0 +1,24 @@
+package net.modgarden.backend.data.fixer.fix;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import net.modgarden.backend.data.fixer.DatabaseFix;
+import org.jetbrains.annotations.Nullable;
+
+/// Enables incremental auto-vacuum on databases created without it, so the incremental-vacuum job can return free
+/// pages to the file system. The setting only takes effect once the database is rebuilt by `VACUUM`.
+public class V9ToV10 extends DatabaseFix {
+	public V9ToV10() {
+		super(9);
+	}
+
+	@Override
+	public @Nullable Consumer<Connection> fix(Connection connection) throws SQLException {
+		var statement = connection.createStatement();
+		statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+		statement.execute("VACUUM");
+		return null;
+	}
+}
@@ -9,6 +9,7 @@ import java.util.List;
 
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
+import net.modgarden.backend.util.codec.JsonSerializer;
 
 // TODO: Add more user permissions for stuff.
 public enum Permission {
@@ -54,6 +55,7 @@ public enum Permission {
 	public static final Codec<List<Permission>> PROJECT_LIST_CODEC = Codec.withAlternative(CODEC.listOf(), Codec.STRING.xmap(string -> fromLongString(string, PROJECT), Permission::toLongString));
 	public static final Codec<Permissions> PERMISSIONS_CODEC = Codec.LONG.xmap(Permissions::new, Permissions::bits);
 	public static final Codec<Permissions> STRING_PERMISSIONS_CODEC = Codec.STRING.xmap(Permissions::new, Permissions::toLongString);
+	public static final JsonSerializer<Permissions> STRING_PERMISSIONS_SERIALIZER = (writer, permissions) -> writer.value(permissions.toLongString());
 
 	private final long bit;
 	private final String name;
@@ -3,23 +3,20 @@ package net.modgarden.backend.data.project;
 import static java.util.Map.entry;
 import static net.modgarden.backend.data.project.ProjectMetadata.fromMapCodec;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 
 import com.mojang.serialization.Codec;
-import com.mojang.serialization.DataResult;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
-import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.data.permission.Permission;
 import net.modgarden.backend.data.permission.Permissions;
 import net.modgarden.backend.data.project.metadata.NoneProjectMetadata;
 import net.modgarden.backend.data.project.metadata.ModProjectMetadata;
 import net.modgarden.backend.data.user.User;
+import net.modgarden.backend.util.codec.IdCodec;
+import net.modgarden.backend.util.codec.JsonSerializer;
+import net.modgarden.backend.util.codec.ObjectSerializer;
 
 // TODO: Allow creating organisations, allow projects to be attributed to an organisation.
 public record Project(String id,
@@ -40,18 +37,12 @@ public record Project(String id,
 			Codec.unboundedMap(User.ID_CODEC, Permission.STRING_PERMISSIONS_CODEC).fieldOf("permissions").forGetter(Project::permissions),
 			Codec.list(Submission.ID_CODEC).fieldOf("submissions").forGetter(Project::submissions)
     ).apply(inst, Project::new)));
-    public static final Codec<String> ID_CODEC = Codec.STRING.validate(Project::validate);
-
-	private static DataResult<String> validate(String id) {
-		try (Connection connection = ModGardenBackend.createDatabaseConnection();
-			 PreparedStatement prepared = connection.prepareStatement("SELECT 1 FROM projects WHERE id = ?")) {
-			prepared.setString(1, id);
-			ResultSet result = prepared.executeQuery();
-			if (result != null && result.getBoolean(1))
-				return DataResult.success(id);
-		} catch (SQLException ex) {
-			ModGardenBackend.LOG.error("Exception in SQL query.", ex);
-		}
-		return DataResult.error(() -> "Failed to get project with id '" + id + "'");
-	}
+	public static final JsonSerializer<Project> SERIALIZER = ObjectSerializer.<Project>builder()
+			.field("id", Project::id, JsonSerializer.STRING)
+			.field("metadata", Project::metadata, JsonSerializer.fromCodec(METADATA_CODEC))
+			.field("team", Project::team, JsonSerializer.map(JsonSerializer.STRING))
+			.field("permissions", Project::permissions, JsonSerializer.map(Permission.STRING_PERMISSIONS_SERIALIZER))
+			.field("submissions", Project::submissions, JsonSerializer.list(JsonSerializer.STRING))
+			.build();
+    public static final Codec<String> ID_CODEC = IdCodec.of("projects", "project");
 }
@@ -3,10 +3,6 @@ package net.modgarden.backend.data.project;
 import static java.util.Map.entry;
 import static net.modgarden.backend.data.project.SubmissionPlatform.fromMapCodec;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.Instant;
 import java.util.Map;
 
@@ -14,11 +10,13 @@ import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
-import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.data.event.Event;
 import net.modgarden.backend.data.project.platform.DownloadUrlSubmissionPlatform;
 import net.modgarden.backend.data.project.platform.ModrinthSubmissionPlatform;
 import net.modgarden.backend.util.codec.ExtraCodecs;
+import net.modgarden.backend.util.codec.IdCodec;
+import net.modgarden.backend.util.codec.JsonSerializer;
+import net.modgarden.backend.util.codec.ObjectSerializer;
 
 public record Submission(String id,
                          String event,
@@ -44,18 +42,12 @@ public record Submission(String id,
 			Project.DIRECT_CODEC.fieldOf("project").forGetter(Submission::project),
 			PLATFORM_CODEC.fieldOf("platform").forGetter(Submission::platform)
     ).apply(inst, Submission::new));
-	public static final Codec<String> ID_CODEC = Codec.STRING.validate(Submission::validate);
-
-	private static DataResult<String> validate(String id) {
-		try (Connection connection = ModGardenBackend.createDatabaseConnection();
-			 PreparedStatement prepared = connection.prepareStatement("SELECT 1 FROM submissions WHERE id = ?")) {
-			prepared.setString(1, id);
-			ResultSet result = prepared.executeQuery();
-			if (result != null && result.getBoolean(1))
-				return DataResult.success(id);
-		} catch (SQLException ex) {
-			ModGardenBackend.LOG.error("Exception in SQL query.", ex);
-		}
-		return DataResult.error(() -> "Failed to get project with id '" + id + "'");
-	}
+	public static final JsonSerializer<Submission> SERIALIZER = ObjectSerializer.<Submission>builder()
+			.field("id", Submission::id, JsonSerializer.STRING)
+			.field("event_id", Submission::event, JsonSerializer.STRING)
+			.field("time_submitted", Submission::timeSubmitted, JsonSerializer.INSTANT)
+			.field("project", Submission::project, Project.SERIALIZER)
+			.field("platform", Submission::platform, JsonSerializer.fromCodec(PLATFORM_CODEC))
+			.build();
+	public static final Codec<String> ID_CODEC = IdCodec.of("submissions", "submission");
 }
@@ -2,7 +2,9 @@ package net.modgarden.backend.data.user;
 
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.modgarden.backend.util.codec.JsonSerializer;
 import net.modgarden.backend.util.codec.NullableCodec;
+import net.modgarden.backend.util.codec.ObjectSerializer;
 import net.modgarden.backend.util.NullableWrapper;
 import org.jetbrains.annotations.Nullable;
 
@@ -32,6 +34,13 @@ public record Bio(@Nullable String displayName,
 					.optionalFieldOf("fields", Collections.emptyMap())
 					.forGetter(Bio::fields)
 	).apply(inst, (displayName, pronouns, description, avatarUrl, fields) -> new Bio(displayName.orElse(null), pronouns.orElse(null), description.orElse(null), avatarUrl.orElse(null), fields)));
+	public static final JsonSerializer<Bio> SERIALIZER = ObjectSerializer.<Bio>builder()
+			.optionalField("display_name", Bio::displayName, JsonSerializer.STRING)
+			.optionalField("pronouns", Bio::pronouns, JsonSerializer.STRING)
+			.optionalField("description", Bio::description, JsonSerializer.STRING)
+			.optionalField("avatar_url", Bio::avatarUrl, JsonSerializer.STRING)
+			.optionalField("fields", Bio::fields, JsonSerializer.map(JsonSerializer.STRING), Collections.emptyMap())
+			.build();
 
 	public record Modifiable(@Nullable NullableWrapper<String> displayName,
 	                         @Nullable NullableWrapper<String> pronouns,
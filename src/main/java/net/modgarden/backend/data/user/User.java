@@ -21,7 +21,10 @@ import net.modgarden.backend.data.user.integration.ModrinthUserIntegration;
 import net.modgarden.backend.data.user.role.UserRole;
 import net.modgarden.backend.database.DatabaseAccess;
 import net.modgarden.backend.util.codec.ExtraCodecs;
+import net.modgarden.backend.util.codec.IdCodec;
+import net.modgarden.backend.util.codec.JsonSerializer;
 import net.modgarden.backend.util.codec.NullableCodec;
+import net.modgarden.backend.util.codec.ObjectSerializer;
 import net.modgarden.backend.util.NullableWrapper;
 
 public record User(
@@ -70,21 +73,22 @@ public record User(
 				    .fieldOf("roles")
 				    .forGetter(User::roles)
     ).apply(inst, User::new));
-    public static final Codec<String> ID_CODEC = Codec.STRING.validate(User::validateId);
+	public static final JsonSerializer<User> SERIALIZER = ObjectSerializer.<User>builder()
+			.field("id", User::id, JsonSerializer.STRING)
+			.field("username", User::username, JsonSerializer.STRING)
+			.field("bio", User::bio, Bio.SERIALIZER)
+			.field("permissions", User::permissions, Permission.STRING_PERMISSIONS_SERIALIZER)
+			.field("created", User::created, JsonSerializer.INSTANT)
+			.field("integrations", User::integrations, JsonSerializer.fromCodec(INTEGRATION_CODEC))
+			.field("projects", User::projects, JsonSerializer.list(JsonSerializer.STRING))
+			.field("events", User::events, JsonSerializer.list(JsonSerializer.STRING))
+			.field("roles", User::roles, JsonSerializer.list(JsonSerializer.STRING))
+			.build();
+    public static final Codec<String> ID_CODEC = IdCodec.of("users", "user");
 	public static final Codec<String> NEW_USERNAME_CODEC = Codec.STRING
 			.xmap(s -> s.toLowerCase(Locale.ROOT), s -> s)
 			.validate(User::validateNewUsername);
 
-	private static DataResult<String> validateId(String id) {
-		DatabaseAccess db = DatabaseAccess.get();
-
-		if (db.logIfThrown(() -> db.userIdExists(id))) {
-			return DataResult.success(id);
-		} else {
-			return DataResult.error(() -> "Failed to get user with id '" + id + "'.");
-		}
-    }
-
 	private static DataResult<String> validateNewUsername(String username) {
 		DatabaseAccess db = DatabaseAccess.get();
 
@@ -3,23 +3,21 @@ package net.modgarden.backend.data.user.role;
 import static java.util.Map.entry;
 import static net.modgarden.backend.data.Integration.fromCodec;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.Instant;
 import java.util.Map;
 
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
-import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.data.Integration;
 import net.modgarden.backend.data.permission.Permission;
 import net.modgarden.backend.data.permission.Permissions;
 import net.modgarden.backend.util.NullableWrapper;
 import net.modgarden.backend.util.codec.ExtraCodecs;
+import net.modgarden.backend.util.codec.IdCodec;
+import net.modgarden.backend.util.codec.JsonSerializer;
 import net.modgarden.backend.util.codec.NullableCodec;
+import net.modgarden.backend.util.codec.ObjectSerializer;
 
 public record UserRole(
 		String id,
@@ -28,7 +26,7 @@ public record UserRole(
 		Instant created,
 		Map<String, Integration> integrations
 ) {
-	public static final Codec<String> ID_CODEC = Codec.STRING.validate(UserRole::validate);
+	public static final Codec<String> ID_CODEC = IdCodec.of("user_role_definitions", "user role");
 	private static final Map<String, Codec<Integration>> INTEGRATION_CODECS = Map.ofEntries(
 			entry(DiscordUserRoleIntegration.ID, fromCodec(DiscordUserRoleIntegration.CODEC))
 	);
@@ -53,18 +51,11 @@ public record UserRole(
 			ExtraCodecs.INSTANT_CODEC.fieldOf("created").forGetter(UserRole::created),
 			Codec.dispatchedMap(INTEGRATION_CODEC_KEY, INTEGRATION_CODECS::get).fieldOf("integrations").forGetter(UserRole::integrations)
 	).apply(inst, UserRole::new));
-
-	private static DataResult<String> validate(String id) {
-		try (
-				Connection connection = ModGardenBackend.createDatabaseConnection();
-				PreparedStatement prepared = connection.prepareStatement("SELECT 1 FROM user_role_definitions WHERE id = ?")) {
-			prepared.setString(1, id);
-			ResultSet result = prepared.executeQuery();
-			if (result != null && result.getBoolean(1))
-				return DataResult.success(id);
-		} catch (SQLException ex) {
-			ModGardenBackend.LOG.error("Exception in SQL query.", ex);
-		}
-		return DataResult.error(() -> "Failed to get user role with id '" + id + "'");
-	}
+	public static final JsonSerializer<UserRole> SERIALIZER = ObjectSerializer.<UserRole>builder()
+			.field("id", UserRole::id, JsonSerializer.STRING)
+			.field("name", UserRole::name, JsonSerializer.STRING)
+			.field("permissions", UserRole::permissions, Permission.STRING_PERMISSIONS_SERIALIZER)
+			.field("created", UserRole::created, JsonSerializer.INSTANT)
+			.field("integrations", UserRole::integrations, JsonSerializer.fromCodec(INTEGRATION_CODEC))
+			.build();
 }
@@ -0,0 +1,121 @@
+package net.modgarden.backend.database;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.modgarden.backend.ModGardenBackend;
+import org.jetbrains.annotations.Nullable;
+
+/// Counts how many times each API key is used, and writes the counts to `api_keys` every so often, rather than
+/// writing on every request.
+///
+/// Authenticating a request only increases an in-memory counter, so it never has to wait on the writer. Counts are
+/// added to the database in one group by the [WriteExecutor] whenever [#flush()] is called by the
+/// [net.modgarden.backend.util.MaintenanceScheduler], and once more when closed. If writing them fails, they're kept
+/// to be written with the next group.
+public final class ApiKeyUsageTracker implements AutoCloseable {
+	private final WriteExecutor writeExecutor;
+	private final ConcurrentHashMap<UUID, Counter> pending = new ConcurrentHashMap<>();
+
+	/// @param writeExecutor the executor counts are written with.
+	public ApiKeyUsageTracker(WriteExecutor writeExecutor) {
+		this.writeExecutor = writeExecutor;
+	}
+
+	/// Records that an API key was used to authenticate a request.
+	public void record(UUID uuid) {
+		this.add(uuid, 1, System.currentTimeMillis());
+	}
+
+	private void add(UUID uuid, long count, long lastUsed) {
+		Counter counter = this.pending.computeIfAbsent(uuid, _ -> new Counter());
+		counter.add(count, lastUsed);
+		// A flush may have forgotten the counter whilst this was adding to it.
+		if (this.pending.get(uuid) != counter) {
+			this.moveForgotten(uuid, counter);
+		}
+	}
+
+	/// Moves anything added to a counter after it was forgotten into the counter that replaced it.
+	///
+	/// Both [#add] and [#flush()] check for this after their own change, so whichever of them goes last moves the
+	/// count, and no use is ever lost.
+	private void moveForgotten(UUID uuid, Counter counter) {
+		long count = counter.count.sumThenReset();
+		if (count > 0) {
+			this.add(uuid, count, counter.lastUsed.get());
+		}
+	}
+
+	/// @return the uses of an API key which haven't been written yet, or null if there are none.
+	@Nullable
+	public DatabaseAccess.ApiKeyUsage getPending(UUID uuid) {
+		Counter counter = this.pending.get(uuid);
+		if (counter == null) {
+			return null;
+		}
+
+		long count = counter.count.sum();
+		return count == 0 ? null : new DatabaseAccess.ApiKeyUsage(uuid, count, Instant.ofEpochMilli(counter.lastUsed.get()));
+	}
+
+	/// Writes every use recorded since the last flush.
+	///
+	/// @return a future which completes once the uses have been committed.
+	public CompletableFuture<Void> flush() {
+		List<DatabaseAccess.ApiKeyUsage> usages = new ArrayList<>();
+		for (Map.Entry<UUID, Counter> entry : this.pending.entrySet()) {
+			Counter counter = entry.getValue();
+			long count = counter.count.sumThenReset();
+			if (count == 0) {
+				// Keys which haven't been used since the last flush are forgotten, so revoked keys don't build up.
+				if (this.pending.remove(entry.getKey(), counter)) {
+					this.moveForgotten(entry.getKey(), counter);
+				}
+				continue;
+			}
+			usages.add(new DatabaseAccess.ApiKeyUsage(entry.getKey(), count, Instant.ofEpochMilli(counter.lastUsed.get())));
+		}
+
+		if (usages.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		return this.writeExecutor.<Void>submit(() -> {
+			DatabaseAccess.get().addApiKeyUsages(usages);
+			return null;
+		}).exceptionally(ex -> {
+			ModGardenBackend.LOG.warn("Failed to write API key usage, retrying with the next flush.", ex);
+			for (DatabaseAccess.ApiKeyUsage usage : usages) {
+				this.add(usage.uuid(), usage.count(), usage.lastUsed().toEpochMilli());
+			}
+			return null;
+		});
+	}
+
+	/// Writes every use recorded since the last flush.
+	@Override
+	public void close() {
+		this.flush().join();
+	}
+
+	private static final class Counter {
+		private final LongAdder count = new LongAdder();
+		private final AtomicLong lastUsed = new AtomicLong();
+
+		void add(long count, long lastUsed) {
+			this.count.add(count);
+			// Only written when it changes, so hot keys don't contend on it.
+			if (this.lastUsed.get() < lastUsed) {
+				this.lastUsed.accumulateAndGet(lastUsed, Math::max);
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package net.modgarden.backend.database;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/// Per-table counters which are increased by triggers whenever a row is inserted, updated or deleted, stored in
+/// `change_versions`.
+///
+/// As the counters only ever increase, the sum of the counters for every table a response is read from changes
+/// whenever the response could have. See [DatabaseAccess#getChangeVersion(java.util.Collection)].
+public final class ChangeVersions {
+	public static final List<String> USER_TABLES = List.of(
+			"users",
+			"user_bios",
+			"user_bio_fields",
+			"user_integration_discord",
+			"user_integration_minecraft",
+			"user_integration_modrinth",
+			"user_roles",
+			// Users include their projects, and the events those projects have been submitted to.
+			"project_roles",
+			"submissions"
+	);
+	public static final List<String> USER_ROLE_TABLES = List.of(
+			"user_role_definitions",
+			"user_role_integration_discord"
+	);
+	public static final List<String> PROJECT_TABLES = List.of(
+			"projects",
+			"project_none_metadata",
+			"project_mod_metadata",
+			"project_roles",
+			"submissions"
+	);
+	public static final List<String> SUBMISSION_TABLES = Stream.concat(
+			PROJECT_TABLES.stream(),
+			Stream.of("submission_platform_modrinth", "submission_platform_download_url")
+	).toList();
+	public static final List<String> EVENT_TABLES = List.of(
+			"events",
+			"event_metadata",
+			"event_times",
+			"event_platform_minecraft",
+			"event_roles"
+	);
+
+	/// Every table with a change version.
+	public static final List<String> TABLES = Stream.of(
+			USER_TABLES,
+			USER_ROLE_TABLES,
+			SUBMISSION_TABLES,
+			EVENT_TABLES
+	).flatMap(List::stream).distinct().toList();
+
+	private ChangeVersions() {
+	}
+
+	/// Adds the statements creating `change_versions` and its triggers to a batch.
+	///
+	/// Every table in [#TABLES] must already exist.
+	public static void addCreateStatements(Statement statement) throws SQLException {
+		statement.addBatch("""
+		CREATE TABLE IF NOT EXISTS change_versions (
+			table_name TEXT NOT NULL,
+			version INTEGER NOT NULL DEFAULT 0,
+			PRIMARY KEY (table_name)
+		) WITHOUT ROWID
+		""");
+
+		for (String table : TABLES) {
+			statement.addBatch("INSERT OR IGNORE INTO change_versions (table_name) VALUES ('" + table + "')");
+
+			for (String operation : List.of("INSERT", "UPDATE", "DELETE")) {
+				statement.addBatch("""
+				CREATE TRIGGER IF NOT EXISTS %1$s_change_version_%2$s AFTER %3$s ON %1$s
+				BEGIN
+					UPDATE change_versions SET version = version + 1 WHERE table_name = '%1$s';
+				END
+				""".formatted(table, operation.toLowerCase(Locale.ROOT), operation));
+			}
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package net.modgarden.backend.database;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import net.modgarden.backend.ModGardenBackend;
+import net.modgarden.backend.util.BoundedCache;
+import org.jetbrains.annotations.Nullable;
+
+/// A bounded, least-recently-used cache of `Authorization` headers which have recently been verified against an
+/// API key, so that repeated requests with the same header skip looking up the key and verifying its hash.
+///
+/// Headers are never stored as they are. They're keyed by their HMAC-SHA256 under a random per-process secret, so
+/// a heap dump doesn't reveal any secrets.
+///
+/// Entries only last for `CREDENTIAL_CACHE_TTL_SECONDS` and until their key expires, and are invalidated as soon as
+/// their key is deleted. They only hold the key's own scope and permissions, which never change, so they're still
+/// narrowed down to the user's current permissions on every request.
+///
+/// Holds up to `CREDENTIAL_CACHE_SIZE` headers.
+public final class CredentialCache {
+	private static final CredentialCache INSTANCE = new CredentialCache(
+			Integer.parseInt(ModGardenBackend.DOTENV.get("CREDENTIAL_CACHE_SIZE", "1024")),
+			Duration.ofSeconds(Long.parseLong(ModGardenBackend.DOTENV.get("CREDENTIAL_CACHE_TTL_SECONDS", "60")))
+	);
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private final long ttlNanos;
+	private final SecretKeySpec secret;
+	private final BoundedCache<String, Credential> entries;
+
+	private CredentialCache(int capacity, Duration ttl) {
+		this.ttlNanos = ttl.toNanos();
+		this.entries = new BoundedCache<>("credentials", capacity);
+
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		this.secret = new SecretKeySpec(secret, ALGORITHM);
+	}
+
+	public static CredentialCache get() {
+		return INSTANCE;
+	}
+
+	/// @return a counter which increases whenever anything is invalidated. See [#put(String, DatabaseAccess.ScopedApiKey, long)].
+	public long generation() {
+		return this.entries.generation();
+	}
+
+	/// @return the API key the header was verified against, or null if it hasn't been recently.
+	@Nullable
+	public DatabaseAccess.ScopedApiKey get(String authorization) {
+		Credential credential = this.entries.get(this.hash(authorization), this::isValid);
+		return credential == null ? null : credential.apiKey();
+	}
+
+	private boolean isValid(Credential credential) {
+		return System.nanoTime() - credential.verifiedAt() <= this.ttlNanos
+				&& !Instant.now().isAfter(credential.apiKey().key().expires());
+	}
+
+	/// Caches a header which has been verified against an API key, unless anything has been invalidated since
+	/// `generation`, as the key may have been deleted while it was being verified.
+	public void put(String authorization, DatabaseAccess.ScopedApiKey apiKey, long generation) {
+		this.entries.put(this.hash(authorization), new Credential(apiKey, System.nanoTime()), generation);
+	}
+
+	/// Invalidates every header verified against a key. Must be called once the key's deletion has been committed.
+	void invalidateKey(UUID uuid) {
+		this.entries.invalidateIf(credential -> credential.apiKey().key().uuid().equals(uuid));
+	}
+
+	/// Invalidates every header verified against a key scoped to a project. Must be called once the project's
+	/// deletion has been committed.
+	void invalidateProject(String projectId) {
+		this.entries.invalidateIf(credential -> credential.apiKey().scope() != null
+				&& Objects.equals(credential.apiKey().scope().projectId(), projectId));
+	}
+
+	private String hash(String authorization) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(this.secret);
+			return HexFormat.of().formatHex(mac.doFinal(authorization.getBytes(StandardCharsets.UTF_8)));
+		} catch (GeneralSecurityException ex) {
+			// Every Java implementation is required to support HmacSHA256.
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/// Hits are requests which skipped verifying their API key, and invalidations are headers removed because their
+	/// API key was deleted.
+	public BoundedCache.Metrics getMetrics() {
+		return this.entries.getMetrics();
+	}
+
+	/// @param verifiedAt when the header was verified, from [System#nanoTime()].
+	private record Credential(DatabaseAccess.ScopedApiKey apiKey, long verifiedAt) {
+	}
+}
@@ -7,9 +7,15 @@ import java.sql.SQLException;
 import java.sql.Types;
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.google.gson.JsonArray;
+import io.javalin.http.HandlerType;
 import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.data.*;
+import net.modgarden.backend.data.award.Award;
 import net.modgarden.backend.data.event.game.MinecraftEventPlatform;
 import net.modgarden.backend.data.permission.Permission;
 import net.modgarden.backend.data.permission.PermissionScope;
@@ -34,27 +40,83 @@ import net.modgarden.backend.endpoint.exception.HypertextException;
 import net.modgarden.backend.endpoint.exception.InternalServerException;
 import net.modgarden.backend.endpoint.exception.NotFoundException;
 import net.modgarden.backend.endpoint.exception.UnprocessableEntityException;
+import net.modgarden.backend.util.BoundedCache;
+import net.modgarden.backend.util.FallibleConsumer;
+import net.modgarden.backend.util.FallibleFunction;
 import net.modgarden.backend.util.FallibleSupplier;
 import net.modgarden.backend.util.LazyValue;
 import net.modgarden.backend.util.MetadataUtils;
 import net.modgarden.backend.util.UuidUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
 
 /// Centralized access to database operations.
 public final class DatabaseAccess implements AutoCloseable {
 	private static final ScopedValue<DatabaseAccess> SCOPED_VALUE = ScopedValue.newInstance();
 
-	private final LazyValue<Connection> connection = LazyValue.of();
+	private static final int MAX_NATURAL_ID_ATTEMPTS = 3;
+	/// The amount of rows read at a time by [#streamAll].
+	private static final int STREAM_BATCH_SIZE = 500;
 
-	private DatabaseAccess() {
+	private final LazyValue<Connection> connection = LazyValue.of();
+	private final FallibleSupplier<Connection, SQLException> connectionFactory;
+	private final boolean ownsConnection;
+	private final boolean readOnly;
+	// Taken before the connection is opened, so it's from before the transaction's snapshot.
+	private final long cacheGeneration = EntityCaches.generation();
+	private final List<Runnable> invalidations = new ArrayList<>();
+	private boolean entityCachesBypassed = false;
+
+	private DatabaseAccess(
+			FallibleSupplier<Connection, SQLException> connectionFactory,
+			boolean ownsConnection,
+			boolean readOnly
+	) {
+		this.connectionFactory = connectionFactory;
+		this.ownsConnection = ownsConnection;
+		this.readOnly = readOnly;
 	}
 
 	/// Binds the [ScopedValue] of this [DatabaseAccess] to the current thread.
 	///
+	/// Safe methods (`GET` and `HEAD`) are given a read-only connection from [ModGardenBackend#getReaderPool()],
+	/// everything else shares the single connection from [ModGardenBackend#getWriterPool()].
+	///
+	/// @param method the HTTP method of the request being handled.
+	/// @return a [ScopedValue.Carrier] which should be used to wrap subsequent calls that need [DatabaseAccess].
+	public static ScopedValue.Carrier bind(HandlerType method) {
+		boolean readOnly = isReadOnly(method);
+		DatabasePool pool = readOnly ? ModGardenBackend.getReaderPool() : ModGardenBackend.getWriterPool();
+		return ScopedValue.where(SCOPED_VALUE, new DatabaseAccess(pool::acquire, true, readOnly));
+	}
+
+	/// Binds the [ScopedValue] of a read-only [DatabaseAccess] to the current thread, for the parts of a write
+	/// request that only read, such as authentication.
+	///
 	/// @return a [ScopedValue.Carrier] which should be used to wrap subsequent calls that need [DatabaseAccess].
-	public static ScopedValue.Carrier bind() {
-		return ScopedValue.where(SCOPED_VALUE, new DatabaseAccess());
+	public static ScopedValue.Carrier bindReadOnly() {
+		return bind(HandlerType.GET);
+	}
+
+	/// Creates a [DatabaseAccess] for a connection that is already in a transaction, such as within a [WriteExecutor]
+	/// group.
+	///
+	/// [#commit()] and [#close()] do nothing, as the transaction and connection belong to the caller, who must call
+	/// [#invalidateCaches()] once the transaction has been committed.
+	static DatabaseAccess borrow(Connection connection) {
+		return new DatabaseAccess(() -> connection, false, false);
+	}
+
+	/// Binds the [ScopedValue] of this [DatabaseAccess] to the current thread for the duration of an operation.
+	<T, X extends Throwable> T call(ScopedValue.CallableOp<? extends T, X> operation) throws X {
+		return ScopedValue.where(SCOPED_VALUE, this).call(operation);
+	}
+
+	/// @return whether requests with this method only read from the database.
+	public static boolean isReadOnly(HandlerType method) {
+		return method == HandlerType.GET || method == HandlerType.HEAD;
 	}
 
 	/// @return the current thread's access to the database. This may differ from other threads.
@@ -63,10 +125,104 @@ public final class DatabaseAccess implements AutoCloseable {
 				"context"));
 	}
 
-	/// **Warning:** do not call [Connection#close()] or use it in a try-with-resources as this will prematurely close
-	/// the connection.
+	/// The connection is in a single deferred transaction for the lifetime of this [DatabaseAccess], which is only
+	/// committed by [#commit()].
+	///
+	/// **Warning:** do not call [Connection#close()] or use it in a try-with-resources as this will prematurely return
+	/// the connection to the pool.
 	private Connection getConnection() throws SQLException {
-		return this.connection.getOrCreate(ModGardenBackend::createDatabaseConnection);
+		return this.connection.getOrCreate(() -> {
+			Connection connection = this.connectionFactory.get();
+			if (this.ownsConnection) {
+				connection.setAutoCommit(false);
+			}
+			return connection;
+		});
+	}
+
+	/// Commits everything done through this [DatabaseAccess] so far.
+	///
+	/// For read-only access, this just ends the snapshot that reads have been served from.
+	public void commit() throws SQLException {
+		if (this.ownsConnection) {
+			this.connection.ifPresent(Connection::commit);
+			this.invalidateCaches();
+		}
+	}
+
+	/// Removes everything modified through this [DatabaseAccess] from the [EntityCaches].
+	///
+	/// This must only be called once the modifications have been committed, otherwise a concurrent read could cache
+	/// the entities again from before they were modified.
+	void invalidateCaches() {
+		for (Runnable invalidation : this.invalidations) {
+			invalidation.run();
+		}
+		this.invalidations.clear();
+	}
+
+	private void invalidateUser(String userId) {
+		this.invalidations.add(() -> EntityCaches.USERS.invalidate(userId));
+	}
+
+	/// Invalidates a project, along with its members, as users include the events their projects were submitted to.
+	private void invalidateProject(String projectId) {
+		this.invalidations.add(() -> {
+			EntityCaches.PROJECTS.invalidate(projectId);
+			EntityCaches.USERS.invalidateIf(user -> user.projects().contains(projectId));
+		});
+	}
+
+	private void invalidateUserRole(String roleId) {
+		this.invalidations.add(() -> EntityCaches.USER_ROLES.invalidate(roleId));
+	}
+
+	private void invalidateEvent(String eventId) {
+		this.invalidations.add(() -> EntityCaches.EVENTS.invalidateIf(event -> event.id().equals(eventId)));
+	}
+
+	private void invalidateApiKey(UUID uuid) {
+		this.invalidations.add(() -> CredentialCache.get().invalidateKey(uuid));
+	}
+
+	/// Invalidates the keys scoped to a project, for when it's deleted along with their scopes.
+	private void invalidateProjectApiKeys(String projectId) {
+		this.invalidations.add(() -> CredentialCache.get().invalidateProject(projectId));
+	}
+
+	/// Stops this access from reading the [EntityCaches], for responses tagged with a [ChangeVersions] version.
+	///
+	/// Caches are only invalidated once a write has been committed, so a transaction started in between sees the new
+	/// version but may still find the old entities cached. A body built from those would then be kept and answered
+	/// with `304 Not Modified` under the new version until the tables next change.
+	public void bypassEntityCaches() {
+		this.entityCachesBypassed = true;
+	}
+
+	/// Only read-only access uses the caches, so nothing a transaction has yet to commit can be cached, and a
+	/// transaction that has modified an entity always sees its own changes.
+	private boolean usesEntityCaches() {
+		return this.readOnly && !this.entityCachesBypassed;
+	}
+
+	/// Gets an entity from a cache, loading it if it isn't cached.
+	private <K, V> V getCached(BoundedCache<K, V> cache, K key, EntityLoader<V> loader)
+			throws SQLException, HypertextException {
+		if (!this.usesEntityCaches()) {
+			return loader.load();
+		}
+
+		V value = cache.get(key);
+		if (value == null) {
+			value = loader.load();
+			cache.put(key, value, this.cacheGeneration);
+		}
+		return value;
+	}
+
+	@FunctionalInterface
+	private interface EntityLoader<V> {
+		V load() throws SQLException, HypertextException;
 	}
 
 	/// @return the value returned by the supplier or the default value if an exception is thrown.
@@ -84,64 +240,255 @@ public final class DatabaseAccess implements AutoCloseable {
 		return this.logIfThrown(operation, false);
 	}
 
+	/// Runs an insert with a natural ID from the table's [NaturalIdAllocator].
+	///
+	/// If the ID already exists in the table, which can only happen if it was inserted without the allocator,
+	/// the insert is retried with another ID.
+	///
+	/// @return the ID that was inserted.
+	private String insertWithNaturalId(
+			String table,
+			FallibleConsumer<String, SQLException> insert
+	) throws SQLException {
+		NaturalIdAllocator allocator = Objects.requireNonNull(NaturalIdAllocator.get(table));
+		for (int attempt = 1; ; attempt++) {
+			String id = allocator.allocate();
+			try {
+				insert.accept(id);
+				return id;
+			} catch (SQLiteException ex) {
+				// Other unique columns, such as usernames, fail with the same code, so the ID is checked too.
+				boolean collision = (ex.getResultCode() == SQLiteErrorCode.SQLITE_CONSTRAINT_PRIMARYKEY ||
+						ex.getResultCode() == SQLiteErrorCode.SQLITE_CONSTRAINT_UNIQUE) &&
+						!this.getExistingIds(table, List.of(id)).isEmpty();
+				if (!collision || attempt == MAX_NATURAL_ID_ATTEMPTS) {
+					throw ex;
+				}
+				ModGardenBackend.LOG.warn("Natural ID '{}' already exists in '{}', retrying.", id, table);
+			}
+		}
+	}
+
+	/// Binds a [PageRequest] to a statement ending in `ROWID > ? ORDER BY ROWID LIMIT ?`.
+	///
+	/// One more row than the limit is requested, so [#readPage] can tell whether there's a next page.
+	private static void setPage(PreparedStatement statement, int index, PageRequest page) throws SQLException {
+		statement.setLong(index, page.after());
+		statement.setLong(index + 1, (long) page.limit() + 1);
+	}
+
+	/// Reads a statement bound through [#setPage], which must select `ROWID AS row_id`.
+	private static <T> Page<T> readPage(
+			ResultSet resultSet,
+			PageRequest page,
+			FallibleFunction<ResultSet, T, SQLException> reader
+	) throws SQLException {
+		List<T> values = new ArrayList<>();
+		long lastRowId = 0;
+
+		while (resultSet.next()) {
+			if (values.size() == page.limit()) {
+				return new Page<>(values, lastRowId);
+			}
+
+			lastRowId = resultSet.getLong("row_id");
+			values.add(reader.apply(resultSet));
+		}
+
+		return new Page<>(values, null);
+	}
+
+	/// Binds a [PageRequest] to a statement ending in `ROWID > ? ORDER BY ROWID LIMIT 2 OFFSET ?`, which then selects
+	/// only the last row of the page and the one after it, for [#readNextCursor].
+	private static void setNextCursorPage(PreparedStatement statement, int index, PageRequest page) throws SQLException {
+		statement.setLong(index, page.after());
+		statement.setLong(index + 1, (long) page.limit() - 1);
+	}
+
+	/// Reads a statement bound through [#setNextCursorPage], which must select only `ROWID`.
+	///
+	/// @return the [Page#next()] of the page, without reading its values.
+	private static @Nullable Long readNextCursor(ResultSet resultSet) throws SQLException {
+		if (!resultSet.next()) {
+			return null;
+		}
+
+		long lastRowId = resultSet.getLong(1);
+		return resultSet.next() ? lastRowId : null;
+	}
+
+	/// Reads every row of a paginated query lazily, one batch of rows at a time as the stream is consumed, so the
+	/// whole list is never held in memory at once.
+	///
+	/// Every batch is read in this [DatabaseAccess]'s transaction, so the stream sees one consistent snapshot, and
+	/// must be consumed before it's committed.
+	public <T> Stream<T> streamAll(FallibleFunction<PageRequest, Page<T>, ? extends Exception> pageReader) {
+		Iterator<T> iterator = new Iterator<>() {
+			private Iterator<T> batch = Collections.emptyIterator();
+			@Nullable
+			private Long after = 0L;
+
+			@Override
+			public boolean hasNext() {
+				while (!this.batch.hasNext() && this.after != null) {
+					Page<T> page;
+					try {
+						page = pageReader.apply(new PageRequest(this.after, STREAM_BATCH_SIZE));
+					} catch (RuntimeException ex) {
+						throw ex;
+					} catch (Exception ex) {
+						throw new IllegalStateException("Failed to read the next batch of rows.", ex);
+					}
+					this.batch = page.values().iterator();
+					this.after = page.next();
+				}
+				return this.batch.hasNext();
+			}
+
+			@Override
+			public T next() {
+				if (!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return this.batch.next();
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/// Encodes values as a JSON array, so a whole batch can be bound to a single `json_each(?)` parameter.
+	private static String toJsonArray(Collection<String> values) {
+		JsonArray array = new JsonArray(values.size());
+		for (String value : values) {
+			array.add(value);
+		}
+		return array.toString();
+	}
+
 	// Auth
 
-	public record ApiKey(String hash, UUID uuid, Instant expires, String name) {
+	/// @param useCount how many requests the key had authenticated when it was read, excluding any which are yet to
+	///                 be written by the [ApiKeyUsageTracker].
+	/// @param lastUsed when the key last authenticated a request, or null if it never has.
+	public record ApiKey(
+			String hash,
+			UUID uuid,
+			Instant expires,
+			String name,
+			long useCount,
+			@Nullable Instant lastUsed
+	) {
+	}
+
+	/// Uses of an API key which are to be added to `api_keys`.
+	///
+	/// @param count the amount of requests the key authenticated.
+	/// @param lastUsed when the last of those requests was made.
+	public record ApiKeyUsage(UUID uuid, long count, Instant lastUsed) {
 	}
 
 	public record ApiKeyScope(PermissionScope scope, String projectId, Permissions permissions) {
 	}
 
-	public Collection<ApiKey> getApiKeys(String userId) throws SQLException {
+	/// An API key along with its scope, which is null if the key has no scope.
+	public record ScopedApiKey(ApiKey key, @Nullable ApiKeyScope scope) {
+	}
+
+	/// @return the key with the given UUID, only if it belongs to the given user.
+	public Optional<ScopedApiKey> getScopedApiKey(UUID uuid, String userId) throws SQLException {
 		try (var apiKeyStatement =
 				     this.getConnection()
-						     .prepareStatement("SELECT hash, uuid, expires, name FROM api_keys WHERE user_id = ?")) {
-			apiKeyStatement.setString(1, userId);
-			Collection<ApiKey> apiKeys = new ArrayList<>();
+						     .prepareStatement("""
+								SELECT api_keys.hash, api_keys.uuid, api_keys.expires, api_keys.name, api_keys.use_count, api_keys.last_used,
+									api_key_scopes.scope, api_key_scopes.project_id, api_key_scopes.permissions
+								FROM api_keys
+								LEFT JOIN api_key_scopes ON api_key_scopes.uuid = api_keys.uuid
+								WHERE api_keys.uuid = ? AND api_keys.user_id = ?
+						     """)) {
+			apiKeyStatement.setBytes(1, UuidUtils.toBytes(uuid));
+			apiKeyStatement.setString(2, userId);
 			ResultSet resultSet = apiKeyStatement.executeQuery();
 
-			if (!resultSet.isBeforeFirst()) {
-				return Collections.emptyList();
+			if (!resultSet.next()) {
+				return Optional.empty();
 			}
+			return Optional.of(readScopedApiKey(resultSet));
+		}
+	}
+
+	public List<ScopedApiKey> getScopedApiKeys(String userId) throws SQLException {
+		try (var apiKeyStatement =
+				     this.getConnection()
+						     .prepareStatement("""
+								SELECT api_keys.hash, api_keys.uuid, api_keys.expires, api_keys.name, api_keys.use_count, api_keys.last_used,
+									api_key_scopes.scope, api_key_scopes.project_id, api_key_scopes.permissions
+								FROM api_keys
+								LEFT JOIN api_key_scopes ON api_key_scopes.uuid = api_keys.uuid
+								WHERE api_keys.user_id = ?
+						     """)) {
+			apiKeyStatement.setString(1, userId);
+			List<ScopedApiKey> apiKeys = new ArrayList<>();
+			ResultSet resultSet = apiKeyStatement.executeQuery();
 
 			while (resultSet.next()) {
-				apiKeys.add(new ApiKey(
-						resultSet.getString("hash"),
-						UuidUtils.fromBytes(resultSet.getBytes("uuid")),
-						Instant.ofEpochMilli(resultSet.getLong("expires")),
-						resultSet.getString("name")
-				));
+				apiKeys.add(readScopedApiKey(resultSet));
 			}
 
 			return apiKeys;
 		}
 	}
 
-	public Optional<ApiKeyScope> getApiKeyScope(UUID uuid) throws SQLException {
-		try (var apiKeyScopeStatement =
+	/// Lists a user's keys which have a scope.
+	///
+	/// @param projectId if not null, only keys scoped to this project are listed.
+	public Page<ScopedApiKey> getScopedApiKeys(String userId, @Nullable String projectId, PageRequest page) throws SQLException {
+		try (var apiKeyStatement =
 				     this.getConnection()
-						     .prepareStatement("SELECT scope, project_id, permissions FROM api_key_scopes WHERE uuid = ?")) {
-			apiKeyScopeStatement.setBytes(1, UuidUtils.toBytes(uuid));
-			ResultSet resultSet = apiKeyScopeStatement.executeQuery();
-
-			if (!resultSet.isBeforeFirst()) {
-				return Optional.empty();
-			}
-
-			return Optional.of(new ApiKeyScope(
-					PermissionScope.fromString(resultSet.getString("scope")),
-					resultSet.getString("project_id"),
-					new Permissions(resultSet.getLong("permissions"))
-			));
-		}
+						     .prepareStatement("""
+								SELECT api_keys.ROWID AS row_id, api_keys.hash, api_keys.uuid, api_keys.expires, api_keys.name, api_keys.use_count, api_keys.last_used,
+									api_key_scopes.scope, api_key_scopes.project_id, api_key_scopes.permissions
+								FROM api_keys
+								INNER JOIN api_key_scopes ON api_key_scopes.uuid = api_keys.uuid
+								WHERE api_keys.user_id = ?
+									AND (?2 IS NULL OR api_key_scopes.project_id = ?2)
+									AND api_keys.ROWID > ?
+								ORDER BY api_keys.ROWID
+								LIMIT ?
+						     """)) {
+			apiKeyStatement.setString(1, userId);
+			apiKeyStatement.setString(2, projectId);
+			setPage(apiKeyStatement, 3, page);
+			return readPage(apiKeyStatement.executeQuery(), page, DatabaseAccess::readScopedApiKey);
+		}
+	}
+
+	private static ScopedApiKey readScopedApiKey(ResultSet resultSet) throws SQLException {
+		long lastUsedMillis = resultSet.getLong("last_used");
+		Instant lastUsed = resultSet.wasNull() ? null : Instant.ofEpochMilli(lastUsedMillis);
+		ApiKey apiKey = new ApiKey(
+				resultSet.getString("hash"),
+				UuidUtils.fromBytes(resultSet.getBytes("uuid")),
+				Instant.ofEpochMilli(resultSet.getLong("expires")),
+				resultSet.getString("name"),
+				resultSet.getLong("use_count"),
+				lastUsed
+		);
+		String scope = resultSet.getString("scope");
+		if (scope == null) {
+			return new ScopedApiKey(apiKey, null);
+		}
+		return new ScopedApiKey(apiKey, new ApiKeyScope(
+				PermissionScope.fromString(scope),
+				resultSet.getString("project_id"),
+				new Permissions(resultSet.getLong("permissions"))
+		));
 	}
 
-	public Optional<ApiKeyScope> getApiKeyScope(UUID uuid, String projectId) throws SQLException {
+	public Optional<ApiKeyScope> getApiKeyScope(UUID uuid) throws SQLException {
 		try (var apiKeyScopeStatement =
 				     this.getConnection()
-						     .prepareStatement("SELECT scope, project_id, permissions FROM api_key_scopes WHERE uuid = ? AND project_id = ?")) {
+						     .prepareStatement("SELECT scope, project_id, permissions FROM api_key_scopes WHERE uuid = ?")) {
 			apiKeyScopeStatement.setBytes(1, UuidUtils.toBytes(uuid));
-			apiKeyScopeStatement.setString(2, projectId);
 			ResultSet resultSet = apiKeyScopeStatement.executeQuery();
 
 			if (!resultSet.isBeforeFirst()) {
@@ -157,6 +504,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void deleteApiKey(UUID uuid) throws SQLException {
+		this.invalidateApiKey(uuid);
 		try (var apiKeyExpiredStatement =
 				     this.getConnection().prepareStatement("DELETE FROM api_keys WHERE uuid = ?")) {
 			apiKeyExpiredStatement.setBytes(1, UuidUtils.toBytes(uuid));
@@ -164,6 +512,77 @@ public final class DatabaseAccess implements AutoCloseable {
 		}
 	}
 
+	/// @return the amount of keys deleted.
+	public int deleteExpiredApiKeys(Instant now) throws SQLException {
+		try (var apiKeyStatement =
+				     this.getConnection().prepareStatement("DELETE FROM api_keys WHERE expires <= ?")) {
+			apiKeyStatement.setLong(1, now.toEpochMilli());
+			return apiKeyStatement.executeUpdate();
+		}
+	}
+
+	/// Deletes a link code as it's used, so it can only be used once.
+	///
+	/// @return the link code, or null if there isn't one or it had expired by `now`.
+	@Nullable
+	public LinkCode deleteLinkCode(String code, Instant now) throws SQLException {
+		try (var linkCodeStatement = this.getConnection().prepareStatement(
+				"DELETE FROM link_codes WHERE code = ? AND expires > ? RETURNING code, account_id, service, expires"
+		)) {
+			linkCodeStatement.setString(1, code);
+			linkCodeStatement.setLong(2, now.toEpochMilli());
+			ResultSet result = linkCodeStatement.executeQuery();
+			if (!result.next()) {
+				return null;
+			}
+
+			return new LinkCode(
+					result.getString("code"),
+					result.getString("account_id"),
+					LinkCode.Service.valueOf(result.getString("service").toUpperCase(Locale.ROOT)),
+					Instant.ofEpochMilli(result.getLong("expires"))
+			);
+		}
+	}
+
+	/// @return the amount of link codes deleted.
+	public int deleteExpiredLinkCodes(Instant now) throws SQLException {
+		try (var linkCodeStatement =
+				     this.getConnection().prepareStatement("DELETE FROM link_codes WHERE expires <= ?")) {
+			linkCodeStatement.setLong(1, now.toEpochMilli());
+			return linkCodeStatement.executeUpdate();
+		}
+	}
+
+	/// Adds uses to API keys in one batch. Uses of keys which have since been deleted are ignored.
+	public void addApiKeyUsages(Collection<ApiKeyUsage> usages) throws SQLException {
+		try (var apiKeyStatement =
+				     this.getConnection().prepareStatement("""
+						UPDATE api_keys
+						SET use_count = use_count + ?, last_used = max(coalesce(last_used, 0), ?)
+						WHERE uuid = ?
+				     """)) {
+			for (ApiKeyUsage usage : usages) {
+				apiKeyStatement.setLong(1, usage.count());
+				apiKeyStatement.setLong(2, usage.lastUsed().toEpochMilli());
+				apiKeyStatement.setBytes(3, UuidUtils.toBytes(usage.uuid()));
+				apiKeyStatement.addBatch();
+			}
+			apiKeyStatement.executeBatch();
+		}
+	}
+
+	/// Replaces the hash of an API key, only if it hasn't been replaced since `oldHash` was read.
+	public void replaceApiKeyHash(UUID uuid, String oldHash, String newHash) throws SQLException {
+		try (var apiKeyStatement =
+				     this.getConnection().prepareStatement("UPDATE api_keys SET hash = ? WHERE uuid = ? AND hash = ?")) {
+			apiKeyStatement.setString(1, newHash);
+			apiKeyStatement.setBytes(2, UuidUtils.toBytes(uuid));
+			apiKeyStatement.setString(3, oldHash);
+			apiKeyStatement.execute();
+		}
+	}
+
 	public void createApiKey(
 			byte[] uuid,
 			String userId,
@@ -220,11 +639,12 @@ public final class DatabaseAccess implements AutoCloseable {
 							VALUES (?, NULL, NULL, NULL, NULL)
 						""")
 		) {
-			String id = NaturalId.generate("users", "id", null, 5);
-			insertUserStatement.setString(1, id);
-			insertUserStatement.setString(2, username);
-			insertUserStatement.setLong(3, 0);
-			insertUserStatement.execute();
+			String id = this.insertWithNaturalId("users", userId -> {
+				insertUserStatement.setString(1, userId);
+				insertUserStatement.setString(2, username);
+				insertUserStatement.setLong(3, 0);
+				insertUserStatement.execute();
+			});
 
 			userBiosStatement.setString(1, id);
 			userBiosStatement.execute();
@@ -233,215 +653,211 @@ public final class DatabaseAccess implements AutoCloseable {
 		}
 	}
 
-	public Collection<User> getUsers() throws SQLException, HypertextException {
+	/// Gets a page of users using a constant amount of queries, one per table, which are assembled in memory.
+	public Page<User> getUsers(PageRequest page) throws SQLException {
 		try (PreparedStatement usersStatement = this.getConnection()
 				.prepareStatement("""
-						SELECT id, username, created, permissions
+						SELECT ROWID AS row_id, id, username, created, permissions
 						FROM users
+						WHERE ROWID > ?
+						ORDER BY ROWID
+						LIMIT ?
 				""");
 		     PreparedStatement userBiosStatement = this.getConnection()
 				     .prepareStatement("""
-						SELECT display_name, pronouns, description, avatar_url
+						SELECT user_id, display_name, pronouns, description, avatar_url
 						FROM user_bios
-						WHERE user_id = ?
+						WHERE user_id IN (SELECT value FROM json_each(?))
 				""");
 		     PreparedStatement userBioFieldsStatement = this.getConnection()
 				     .prepareStatement("""
-						SELECT field_name, field_value
+						SELECT user_id, field_name, field_value
 						FROM user_bio_fields
-						WHERE user_id = ?
+						WHERE user_id IN (SELECT value FROM json_each(?))
 						ORDER BY ROWID
 				""");
 		     PreparedStatement userIntegrationDiscordStatement = this.getConnection()
 				     .prepareStatement("""
-						SELECT discord_id
+						SELECT user_id, discord_id
 						FROM user_integration_discord
-						WHERE user_id = ?
+						WHERE user_id IN (SELECT value FROM json_each(?))
 				""");
 		     PreparedStatement userIntegrationMinecraftStatement = this.getConnection()
 				     .prepareStatement("""
-						SELECT uuid
+						SELECT user_id, uuid
 						FROM user_integration_minecraft
-						WHERE user_id = ?
+						WHERE user_id IN (SELECT value FROM json_each(?))
 				""");
 		     PreparedStatement userIntegrationModrinthStatement = this.getConnection()
 				     .prepareStatement("""
-						SELECT modrinth_id
+						SELECT user_id, modrinth_id
 						FROM user_integration_modrinth
-						WHERE user_id = ?
+						WHERE user_id IN (SELECT value FROM json_each(?))
 				""");
 		     PreparedStatement projectRolesStatement = this.getConnection()
 				     .prepareStatement("""
-						SELECT project_id
+						SELECT user_id, project_id
 						FROM project_roles
-						WHERE user_id = ?
+						WHERE user_id IN (SELECT value FROM json_each(?))
+						ORDER BY ROWID
 				""");
 		     PreparedStatement eventsStatement = this.getConnection()
 				     .prepareStatement("""
-						SELECT event_id
-						FROM submissions
-						WHERE project_id = ?
+						SELECT project_roles.user_id, submissions.event_id
+						FROM project_roles
+						JOIN submissions ON submissions.project_id = project_roles.project_id
+						WHERE project_roles.user_id IN (SELECT value FROM json_each(?))
+						ORDER BY project_roles.ROWID, submissions.ROWID
 				""");
 		     PreparedStatement userRolesStatement = this.getConnection()
 				     .prepareStatement("""
-						SELECT role_id
+						SELECT user_id, role_id
 						FROM user_roles
-						WHERE user_id = ?
+						WHERE user_id IN (SELECT value FROM json_each(?))
 				""")
 		) {
-			ResultSet usersResult = usersStatement.executeQuery();
-
-			if (!usersResult.isBeforeFirst()) {
-				return Collections.emptyList();
-			}
-
-			List<User> users = new ArrayList<>();
-
-			while (usersResult.next()) {
-				String userId = usersResult.getString("id");
-				String username = usersResult.getString("username");
-				Permissions permissions = new Permissions(usersResult.getLong("permissions"));
-				Instant created = Instant.ofEpochMilli(usersResult.getLong("created"));
-
-				userBiosStatement.setString(1, userId);
-				ResultSet userBiosResult = userBiosStatement.executeQuery();
-
-				String displayName;
-				String pronouns;
-				String description;
-				String avatarUrl;
-
-				if (userBiosResult.isBeforeFirst()) {
-					displayName = userBiosResult.getString("display_name");
-					pronouns = userBiosResult.getString("pronouns");
-					description = userBiosResult.getString("description");
-					avatarUrl = userBiosResult.getString("avatar_url");
-				} else {
-					displayName = null;
-					pronouns = null;
-					description = null;
-					avatarUrl = null;
-				}
+			record UserRow(String id, String username, Permissions permissions, Instant created) {
+			}
 
-				Map<String, String> fields = new LinkedHashMap<>();
+			setPage(usersStatement, 1, page);
+			Page<UserRow> userRows = readPage(usersStatement.executeQuery(), page, usersResult -> new UserRow(
+					usersResult.getString("id"),
+					usersResult.getString("username"),
+					new Permissions(usersResult.getLong("permissions")),
+					Instant.ofEpochMilli(usersResult.getLong("created"))
+			));
 
-				userBioFieldsStatement.setString(1, userId);
-				ResultSet userBioFieldsResult = userBioFieldsStatement.executeQuery();
-				while (userBioFieldsResult.next()) {
-					fields.put(
-							userBioFieldsResult.getString("field_name"),
-							userBioFieldsResult.getString("field_value")
-					);
-				}
+			if (userRows.values().isEmpty()) {
+				return new Page<>(List.of(), null);
+			}
 
-				Bio bio = new Bio(
-						displayName,
-						pronouns,
-						description,
-						avatarUrl,
-						fields
+			String userIdsJson = toJsonArray(userRows.values().stream().map(UserRow::id).toList());
+			userBiosStatement.setString(1, userIdsJson);
+			userBioFieldsStatement.setString(1, userIdsJson);
+			userIntegrationDiscordStatement.setString(1, userIdsJson);
+			userIntegrationMinecraftStatement.setString(1, userIdsJson);
+			userIntegrationModrinthStatement.setString(1, userIdsJson);
+			projectRolesStatement.setString(1, userIdsJson);
+			eventsStatement.setString(1, userIdsJson);
+			userRolesStatement.setString(1, userIdsJson);
+
+			Map<String, Map<String, String>> fields = new HashMap<>();
+			ResultSet userBioFieldsResult = userBioFieldsStatement.executeQuery();
+			while (userBioFieldsResult.next()) {
+				fields.computeIfAbsent(userBioFieldsResult.getString("user_id"), _ -> new LinkedHashMap<>()).put(
+						userBioFieldsResult.getString("field_name"),
+						userBioFieldsResult.getString("field_value")
 				);
+			}
 
-				Map<String, Integration> integrations = new LinkedHashMap<>();
-
-				userIntegrationDiscordStatement.setString(1, userId);
-				ResultSet usersIntegrationDiscordResult = userIntegrationDiscordStatement.executeQuery();
-
-				if (usersIntegrationDiscordResult.isBeforeFirst()) {
-					integrations.put("discord", new DiscordUserIntegration(usersIntegrationDiscordResult.getString("discord_id")));
-				}
-
-				userIntegrationMinecraftStatement.setString(1, userId);
-				ResultSet userIntegrationMinecraftResult = userIntegrationMinecraftStatement.executeQuery();
-
-				if (userIntegrationMinecraftResult.isBeforeFirst()) {
-					List<String> accounts = new ArrayList<>();
-					while (userIntegrationMinecraftResult.next()) {
-						accounts.add(userIntegrationMinecraftResult.getString("uuid"));
-					}
-					integrations.put("minecraft", new MinecraftUserIntegration(accounts));
-				}
-
-				userIntegrationModrinthStatement.setString(1, userId);
-				ResultSet userIntegrationModrinthResult = userIntegrationModrinthStatement.executeQuery();
-
-				if (userIntegrationModrinthResult.isBeforeFirst()) {
-					integrations.put("modrinth", new ModrinthUserIntegration(userIntegrationModrinthResult.getString("modrinth_id")));
-				}
-
-				Set<String> projects = new LinkedHashSet<>();
-
-				projectRolesStatement.setString(1, userId);
-				ResultSet projectRolesResult = projectRolesStatement.executeQuery();
+			Map<String, Bio> bios = new HashMap<>();
+			ResultSet userBiosResult = userBiosStatement.executeQuery();
+			while (userBiosResult.next()) {
+				String userId = userBiosResult.getString("user_id");
+				bios.put(userId, new Bio(
+						userBiosResult.getString("display_name"),
+						userBiosResult.getString("pronouns"),
+						userBiosResult.getString("description"),
+						userBiosResult.getString("avatar_url"),
+						fields.getOrDefault(userId, new LinkedHashMap<>())
+				));
+			}
 
-				while (projectRolesResult.next()) {
-					projects.add(projectRolesResult.getString("project_id"));
-				}
+			// Insertion order matters here, integrations are listed as discord, minecraft and then modrinth.
+			Map<String, Map<String, Integration>> integrations = new HashMap<>();
 
-				Set<String> events = new LinkedHashSet<>();
+			ResultSet usersIntegrationDiscordResult = userIntegrationDiscordStatement.executeQuery();
+			while (usersIntegrationDiscordResult.next()) {
+				integrations.computeIfAbsent(usersIntegrationDiscordResult.getString("user_id"), _ -> new LinkedHashMap<>())
+						.put("discord", new DiscordUserIntegration(usersIntegrationDiscordResult.getString("discord_id")));
+			}
 
-				for (String projectId : projects) {
-					eventsStatement.setString(1, projectId);
-					ResultSet eventsResult = eventsStatement.executeQuery();
+			Map<String, List<String>> minecraftAccounts = new LinkedHashMap<>();
+			ResultSet userIntegrationMinecraftResult = userIntegrationMinecraftStatement.executeQuery();
+			while (userIntegrationMinecraftResult.next()) {
+				minecraftAccounts.computeIfAbsent(userIntegrationMinecraftResult.getString("user_id"), _ -> new ArrayList<>())
+						.add(userIntegrationMinecraftResult.getString("uuid"));
+			}
+			for (Map.Entry<String, List<String>> entry : minecraftAccounts.entrySet()) {
+				integrations.computeIfAbsent(entry.getKey(), _ -> new LinkedHashMap<>())
+						.put("minecraft", new MinecraftUserIntegration(entry.getValue()));
+			}
 
-					while (eventsResult.next()) {
-						events.add(eventsResult.getString("event_id"));
-					}
-				}
+			ResultSet userIntegrationModrinthResult = userIntegrationModrinthStatement.executeQuery();
+			while (userIntegrationModrinthResult.next()) {
+				integrations.computeIfAbsent(userIntegrationModrinthResult.getString("user_id"), _ -> new LinkedHashMap<>())
+						.put("modrinth", new ModrinthUserIntegration(userIntegrationModrinthResult.getString("modrinth_id")));
+			}
 
-				Set<String> roles = new LinkedHashSet<>();
+			Map<String, Set<String>> projects = new HashMap<>();
+			ResultSet projectRolesResult = projectRolesStatement.executeQuery();
+			while (projectRolesResult.next()) {
+				projects.computeIfAbsent(projectRolesResult.getString("user_id"), _ -> new LinkedHashSet<>())
+						.add(projectRolesResult.getString("project_id"));
+			}
 
-				userRolesStatement.setString(1, userId);
-				ResultSet userRolesResult = userRolesStatement.executeQuery();
+			Map<String, Set<String>> events = new HashMap<>();
+			ResultSet eventsResult = eventsStatement.executeQuery();
+			while (eventsResult.next()) {
+				events.computeIfAbsent(eventsResult.getString("user_id"), _ -> new LinkedHashSet<>())
+						.add(eventsResult.getString("event_id"));
+			}
 
-				while (userRolesResult.next()) {
-					roles.add(userRolesResult.getString("role_id"));
-				}
+			Map<String, Set<String>> roles = new HashMap<>();
+			ResultSet userRolesResult = userRolesStatement.executeQuery();
+			while (userRolesResult.next()) {
+				roles.computeIfAbsent(userRolesResult.getString("user_id"), _ -> new LinkedHashSet<>())
+						.add(userRolesResult.getString("role_id"));
+			}
 
+			List<User> users = new ArrayList<>(userRows.values().size());
+			for (UserRow row : userRows.values()) {
+				String userId = row.id();
 				users.add(new User(
 						userId,
-						username,
-						bio,
-						permissions,
-						created,
-						integrations,
-						projects,
-						events,
-						roles
+						row.username(),
+						bios.getOrDefault(userId, new Bio(
+								null,
+								null,
+								null,
+								null,
+								fields.getOrDefault(userId, new LinkedHashMap<>())
+						)),
+						row.permissions(),
+						row.created(),
+						integrations.getOrDefault(userId, new LinkedHashMap<>()),
+						projects.getOrDefault(userId, new LinkedHashSet<>()),
+						events.getOrDefault(userId, new LinkedHashSet<>()),
+						roles.getOrDefault(userId, new LinkedHashSet<>())
 				));
 			}
 
-			return List.copyOf(users);
+			return new Page<>(List.copyOf(users), userRows.next());
 		}
 	}
 
-	public Collection<String> getUserIds() throws SQLException {
+	public Page<String> getUserIds(PageRequest page) throws SQLException {
 		try (PreparedStatement usersStatement = this.getConnection()
 				.prepareStatement("""
-						SELECT id, username, created, permissions
+						SELECT ROWID AS row_id, id
 						FROM users
+						WHERE ROWID > ?
+						ORDER BY ROWID
+						LIMIT ?
 				""")
 		) {
-			ResultSet usersResult = usersStatement.executeQuery();
-
-			if (!usersResult.isBeforeFirst()) {
-				return Collections.emptyList();
-			}
-
-			List<String> userIds = new ArrayList<>();
-
-			while (usersResult.next()) {
-				String userId = usersResult.getString("id");
-				userIds.add(userId);
-			}
-
-			return List.copyOf(userIds);
+			setPage(usersStatement, 1, page);
+			return readPage(usersStatement.executeQuery(), page, usersResult -> usersResult.getString("id"));
 		}
 	}
 
 	public User getUserFromId(
 			@NotNull String userId
 	) throws SQLException, HypertextException {
+		return this.getCached(EntityCaches.USERS, userId, () -> this.loadUserFromId(userId));
+	}
+
+	private User loadUserFromId(String userId) throws SQLException, HypertextException {
 		try (PreparedStatement usersStatement = this.getConnection()
 				.prepareStatement("""
 						SELECT username, created, permissions
@@ -694,18 +1110,21 @@ public final class DatabaseAccess implements AutoCloseable {
 					VALUES (?, ?, ?, unix_millis())
 				""")
 		) {
-			String roleId = NaturalId.generate("user_role_definitions", "id", null, 5);
-
-			statement.setString(1, roleId);
-			statement.setString(2, name);
-			statement.setString(3, permission.toLongString());
-			statement.executeUpdate();
-
-			return roleId;
+			return this.insertWithNaturalId("user_role_definitions", roleId -> {
+				statement.setString(1, roleId);
+				statement.setString(2, name);
+				statement.setString(3, permission.toLongString());
+				statement.executeUpdate();
+			});
 		}
 	}
 
 	public void deleteUserRole(String roleId) throws SQLException {
+		this.invalidateUserRole(roleId);
+		this.invalidations.add(() -> {
+			EntityCaches.USERS.invalidateIf(user -> user.roles().contains(roleId));
+			EntityCaches.EVENTS.invalidateIf(event -> event.roles().containsValue(roleId));
+		});
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					DELETE FROM user_role_definitions
@@ -718,6 +1137,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setUserRoleName(String userRoleId, String name) throws SQLException {
+		this.invalidateUserRole(userRoleId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE user_role_definitions
@@ -732,6 +1152,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setUserRolePermissions(String userRoleId, Permissions permissions) throws SQLException {
+		this.invalidateUserRole(userRoleId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE user_role_definitions
@@ -746,6 +1167,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setUserRoleDiscordIntegration(String userRoleId, String discordRoleId) throws SQLException {
+		this.invalidateUserRole(userRoleId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					INSERT OR REPLACE INTO user_role_integration_discord (role_id, discord_role_id)
@@ -759,6 +1181,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void removeUserRoleDiscordIntegration(String userRoleId) throws SQLException {
+		this.invalidateUserRole(userRoleId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					DELETE FROM user_role_integration_discord
@@ -770,89 +1193,89 @@ public final class DatabaseAccess implements AutoCloseable {
 		}
 	}
 
-	public Collection<String> getUserRoleIds() throws SQLException {
+	public Page<String> getUserRoleIds(PageRequest page) throws SQLException {
 		try (var userRoleDefinitionStatement = this.getConnection()
 				.prepareStatement("""
-						SELECT id
+						SELECT ROWID AS row_id, id
 						FROM user_role_definitions
-					""");
-		     var userRoleIntegrationDiscordStatement = this.getConnection()
-				     .prepareStatement("""
-							SELECT discord_role_id
-							FROM user_role_integration_discord
-							WHERE role_id = ?
-						""")
+						WHERE ROWID > ?
+						ORDER BY ROWID
+						LIMIT ?
+					""")
 		) {
-			ResultSet resultSet = userRoleDefinitionStatement.executeQuery();
-			if (!resultSet.isBeforeFirst()) {
-				return Collections.emptyList();
-			}
-
-			List<String> roleIds = new ArrayList<>();
-
-			while (resultSet.next()) {
-				String roleId = resultSet.getString("id");
-				roleIds.add(roleId);
-			}
-
-			return List.copyOf(roleIds);
+			setPage(userRoleDefinitionStatement, 1, page);
+			return readPage(userRoleDefinitionStatement.executeQuery(), page, resultSet -> resultSet.getString("id"));
 		}
 	}
 
-	public Collection<UserRole> getUserRoles() throws SQLException {
+	public Page<UserRole> getUserRoles(PageRequest page) throws SQLException {
 		try (var userRoleDefinitionStatement = this.getConnection()
 				.prepareStatement("""
-						SELECT id, name, permissions, created
+						SELECT ROWID AS row_id, id, name, permissions, created
 						FROM user_role_definitions
+						WHERE ROWID > ?
+						ORDER BY ROWID
+						LIMIT ?
 					""");
 		     var userRoleIntegrationDiscordStatement = this.getConnection()
 				     .prepareStatement("""
-							SELECT discord_role_id
+							SELECT role_id, discord_role_id
 							FROM user_role_integration_discord
-							WHERE role_id = ?
+							WHERE role_id IN (SELECT value FROM json_each(?))
 						""")
 		) {
-			ResultSet resultSet = userRoleDefinitionStatement.executeQuery();
-			if (!resultSet.isBeforeFirst()) {
-				return Collections.emptyList();
+			record UserRoleRow(String id, String name, Permissions permissions, Instant created) {
 			}
 
-			List<UserRole> roles = new ArrayList<>();
-
-			while (resultSet.next()) {
-				String roleId = resultSet.getString("id");
-				String name = resultSet.getString("name");
-				Permissions permissions = new Permissions(resultSet.getLong("permissions"));
-				Instant created = Instant.ofEpochMilli(resultSet.getLong("created"));
+			setPage(userRoleDefinitionStatement, 1, page);
+			Page<UserRoleRow> userRoleRows = readPage(userRoleDefinitionStatement.executeQuery(), page, resultSet -> new UserRoleRow(
+					resultSet.getString("id"),
+					resultSet.getString("name"),
+					new Permissions(resultSet.getLong("permissions")),
+					Instant.ofEpochMilli(resultSet.getLong("created"))
+			));
 
-				Map<String, Integration> integrations = new LinkedHashMap<>();
+			if (userRoleRows.values().isEmpty()) {
+				return new Page<>(List.of(), null);
+			}
 
-				userRoleIntegrationDiscordStatement.setString(1, roleId);
-				ResultSet userRolesIntegrationDiscordResult = userRoleIntegrationDiscordStatement.executeQuery();
+			// The integrations of every role in the page are read at once.
+			userRoleIntegrationDiscordStatement.setString(1, toJsonArray(userRoleRows.values().stream().map(UserRoleRow::id).toList()));
+			Map<String, String> discordRoleIds = new HashMap<>();
+			ResultSet userRolesIntegrationDiscordResult = userRoleIntegrationDiscordStatement.executeQuery();
+			while (userRolesIntegrationDiscordResult.next()) {
+				discordRoleIds.put(
+						userRolesIntegrationDiscordResult.getString("role_id"),
+						userRolesIntegrationDiscordResult.getString("discord_role_id")
+				);
+			}
 
-				if (userRolesIntegrationDiscordResult.isBeforeFirst()) {
-					integrations.put(
-							"discord",
-							new DiscordUserRoleIntegration(
-									userRolesIntegrationDiscordResult.getString("discord_role_id")
-							)
-					);
+			List<UserRole> userRoles = new ArrayList<>(userRoleRows.values().size());
+			for (UserRoleRow row : userRoleRows.values()) {
+				Map<String, Integration> integrations = new LinkedHashMap<>();
+				String discordRoleId = discordRoleIds.get(row.id());
+				if (discordRoleId != null) {
+					integrations.put("discord", new DiscordUserRoleIntegration(discordRoleId));
 				}
 
-				roles.add(new UserRole(
-						roleId,
-						name,
-						permissions,
-						created,
+				userRoles.add(new UserRole(
+						row.id(),
+						row.name(),
+						row.permissions(),
+						row.created(),
 						integrations
 				));
 			}
 
-			return List.copyOf(roles);
+			return new Page<>(List.copyOf(userRoles), userRoleRows.next());
 		}
 	}
 
 	public UserRole getUserRoleFromId(String roleId) throws SQLException, HypertextException {
+		return this.getCached(EntityCaches.USER_ROLES, roleId, () -> this.loadUserRoleFromId(roleId));
+	}
+
+	private UserRole loadUserRoleFromId(String roleId) throws SQLException, HypertextException {
 		try (var userRoleDefinitionStatement = this.getConnection()
 				.prepareStatement("""
 						SELECT name, permissions, created
@@ -920,6 +1343,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setUsername(String userId, String newUsername) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE users
@@ -934,6 +1358,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setUserBioDisplayName(String userId, @Nullable String displayName) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE user_bios
@@ -952,6 +1377,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setUserBioPronouns(String userId, @Nullable String pronouns) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE user_bios
@@ -970,6 +1396,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setUserBioDescription(String userId, @Nullable String description) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE user_bios
@@ -988,6 +1415,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setUserBioAvatarUrl(String userId, @Nullable String avatarUrl) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE user_bios
@@ -1006,6 +1434,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void addUserBioField(String userId, String fieldName, String fieldValue) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					INSERT INTO user_bio_fields (user_id, field_name, field_value)
@@ -1020,6 +1449,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void removeUserBioField(String userId, String fieldName) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					DELETE FROM user_bio_fields
@@ -1033,6 +1463,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setUserDiscordIntegration(String userId, String discordId) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					INSERT OR REPLACE INTO user_integration_discord (user_id, discord_id)
@@ -1046,6 +1477,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void removeUserDiscordIntegration(String userId) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					DELETE FROM user_integration_discord
@@ -1058,6 +1490,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void addUserRole(String roleId, String userId) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					INSERT INTO user_roles (role_id, user_id)
@@ -1071,6 +1504,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void removeUserRole(String roleId, String userId) throws SQLException {
+		this.invalidateUser(userId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					DELETE FROM user_roles
@@ -1114,12 +1548,13 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public String createProject(String ownerUserId, String name) throws SQLException {
-		String projectId = NaturalId.generate("projects", "id", null, 5);
-		this.createProject(projectId, ownerUserId, name);
-		return projectId;
+		this.invalidateUser(ownerUserId);
+		return this.insertWithNaturalId("projects", projectId -> this.createProject(projectId, ownerUserId, name));
 	}
 
 	public void deleteProject(String projectId) throws SQLException {
+		this.invalidateProject(projectId);
+		this.invalidateProjectApiKeys(projectId);
 		Connection connection = this.getConnection();
 
 		try (
@@ -1134,6 +1569,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void deleteProjectMetadata(String projectId) throws SQLException {
+		this.invalidateProject(projectId);
 		try (var deleteModStatement = this.getConnection().prepareStatement("""
 					DELETE FROM project_mod_metadata
 					WHERE project_id = ?
@@ -1150,6 +1586,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setProjectNoneMetadata(String projectId, NoneProjectMetadata.Modifiable metadata) throws SQLException {
+		this.invalidateProject(projectId);
 		if (metadata.name() != null) {
 			try (var updateStatement = this.getConnection().prepareStatement("""
 					UPDATE project_none_metadata
@@ -1164,6 +1601,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setRoleName(String projectId, String userId, String roleName) throws SQLException {
+		this.invalidateProject(projectId);
 		try (var updateStatement = this.getConnection().prepareStatement("""
 					UPDATE project_roles
 					SET role_name = ?
@@ -1219,6 +1657,7 @@ public final class DatabaseAccess implements AutoCloseable {
 			String projectId,
 			String userId
 	) throws SQLException {
+		this.invalidateProject(projectId);
 		try (var updateStatement = this.getConnection().prepareStatement("""
 					UPDATE project_roles
 					SET permissions = ?
@@ -1234,6 +1673,10 @@ public final class DatabaseAccess implements AutoCloseable {
 	public Project getProjectFromId(
 			@NotNull String projectId
 	) throws SQLException, HypertextException {
+		return this.getCached(EntityCaches.PROJECTS, projectId, () -> this.loadProjectFromId(projectId));
+	}
+
+	private Project loadProjectFromId(String projectId) throws SQLException, HypertextException {
 		Connection connection = this.getConnection();
 		Map<String, String> team = new LinkedHashMap<>();
 		Map<String, Permissions> permissions = new LinkedHashMap<>();
@@ -1309,6 +1752,130 @@ public final class DatabaseAccess implements AutoCloseable {
 		}
 	}
 
+	/// Batched version of [#getProjectFromId(String)], which uses a constant amount of queries.
+	///
+	/// @return the projects, keyed by project ID in the same order as `projectIds`.
+	public Map<String, Project> getProjectsFromIds(
+			@NotNull Collection<String> projectIds
+	) throws SQLException, HypertextException {
+		if (!this.usesEntityCaches()) {
+			return this.loadProjectsFromIds(projectIds);
+		}
+
+		Map<String, Project> projects = new LinkedHashMap<>();
+		List<String> uncachedIds = new ArrayList<>();
+		for (String projectId : projectIds) {
+			Project project = EntityCaches.PROJECTS.get(projectId);
+			projects.put(projectId, project);
+			if (project == null) {
+				uncachedIds.add(projectId);
+			}
+		}
+
+		if (!uncachedIds.isEmpty()) {
+			for (Project project : this.loadProjectsFromIds(uncachedIds).values()) {
+				projects.put(project.id(), project);
+				EntityCaches.PROJECTS.put(project.id(), project, this.cacheGeneration);
+			}
+		}
+
+		return projects;
+	}
+
+	private Map<String, Project> loadProjectsFromIds(Collection<String> projectIds) throws SQLException, HypertextException {
+		Connection connection = this.getConnection();
+		Map<String, ProjectMetadata> metadata = new HashMap<>();
+		Map<String, Map<String, String>> teams = new HashMap<>();
+		Map<String, Map<String, Permissions>> permissions = new HashMap<>();
+		Map<String, List<String>> submissions = new HashMap<>();
+
+		try (
+				var projectRolesStatement = connection.prepareStatement("""
+					SELECT project_id, user_id, permissions, role_name
+					FROM project_roles
+					WHERE project_id IN (SELECT value FROM json_each(?))
+				""");
+				var projectNoneMetadataStatement = connection.prepareStatement("""
+					SELECT project_id, name
+					FROM project_none_metadata
+					WHERE project_id IN (SELECT value FROM json_each(?))
+				""");
+				var projectModMetadataStatement = connection.prepareStatement("""
+					SELECT project_id, mod_id, name, description, source_url
+					FROM project_mod_metadata
+					WHERE project_id IN (SELECT value FROM json_each(?))
+				""");
+				var submissionsStatement = connection.prepareStatement("""
+					SELECT project_id, id
+					FROM submissions
+					WHERE project_id IN (SELECT value FROM json_each(?))
+					ORDER BY ROWID
+				""")
+		) {
+			String projectIdsJson = toJsonArray(projectIds);
+
+			// None metadata goes first so mod metadata takes priority, the same as in getProjectFromId.
+			projectNoneMetadataStatement.setString(1, projectIdsJson);
+			ResultSet projectNoneMetadataResult = projectNoneMetadataStatement.executeQuery();
+			while (projectNoneMetadataResult.next()) {
+				metadata.put(
+						projectNoneMetadataResult.getString("project_id"),
+						new NoneProjectMetadata(projectNoneMetadataResult.getString("name"))
+				);
+			}
+
+			projectModMetadataStatement.setString(1, projectIdsJson);
+			ResultSet projectModMetadataResult = projectModMetadataStatement.executeQuery();
+			while (projectModMetadataResult.next()) {
+				metadata.put(
+						projectModMetadataResult.getString("project_id"),
+						new ModProjectMetadata(
+								projectModMetadataResult.getString("mod_id"),
+								projectModMetadataResult.getString("name"),
+								projectModMetadataResult.getString("description"),
+								projectModMetadataResult.getString("source_url")
+						)
+				);
+			}
+
+			projectRolesStatement.setString(1, projectIdsJson);
+			ResultSet projectRolesResult = projectRolesStatement.executeQuery();
+			while (projectRolesResult.next()) {
+				String projectId = projectRolesResult.getString("project_id");
+				String projectRoleUserId = projectRolesResult.getString("user_id");
+				teams.computeIfAbsent(projectId, _ -> new LinkedHashMap<>())
+						.put(projectRoleUserId, projectRolesResult.getString("role_name"));
+				permissions.computeIfAbsent(projectId, _ -> new LinkedHashMap<>())
+						.put(projectRoleUserId, new Permissions(projectRolesResult.getLong("permissions")));
+			}
+
+			submissionsStatement.setString(1, projectIdsJson);
+			ResultSet submissionsResult = submissionsStatement.executeQuery();
+			while (submissionsResult.next()) {
+				submissions.computeIfAbsent(submissionsResult.getString("project_id"), _ -> new ArrayList<>())
+						.add(submissionsResult.getString("id"));
+			}
+
+			Map<String, Project> projects = new LinkedHashMap<>();
+			for (String projectId : projectIds) {
+				ProjectMetadata projectMetadata = metadata.get(projectId);
+				if (projectMetadata == null) {
+					throw new NotFoundException("Could not find metadata for project '" + projectId + "'");
+				}
+
+				projects.put(projectId, new Project(
+						projectId,
+						projectMetadata,
+						teams.getOrDefault(projectId, new LinkedHashMap<>()),
+						permissions.getOrDefault(projectId, new LinkedHashMap<>()),
+						submissions.getOrDefault(projectId, new ArrayList<>())
+				));
+			}
+
+			return projects;
+		}
+	}
+
 	public boolean hasProjectMemberPermissions(String userId, String projectId) throws SQLException {
 		Connection connection = this.getConnection();
 
@@ -1344,6 +1911,8 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void addProjectMember(String projectId, String userId) throws SQLException {
+		this.invalidateUser(userId);
+		this.invalidateProject(projectId);
 		try (
 				var insertStatement = this.getConnection().prepareStatement("""
 					INSERT OR IGNORE INTO project_roles (project_id, user_id)
@@ -1357,6 +1926,8 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void removeProjectMember(String projectId, String userId) throws SQLException {
+		this.invalidateUser(userId);
+		this.invalidateProject(projectId);
 		try (var deleteStatement = this.getConnection().prepareStatement("""
 					DELETE FROM project_roles
 					WHERE project_id = ? AND user_id = ?
@@ -1379,6 +1950,26 @@ public final class DatabaseAccess implements AutoCloseable {
 		}
 	}
 
+	@Nullable
+	public Award getAward(String awardId) throws SQLException {
+		try (var awardStatement = this.getConnection().prepareStatement("SELECT * FROM awards WHERE id = ?")) {
+			awardStatement.setString(1, awardId);
+			ResultSet result = awardStatement.executeQuery();
+			if (!result.isBeforeFirst()) {
+				return null;
+			}
+
+			return new Award(
+					result.getString("id"),
+					result.getString("slug"),
+					result.getString("display_name"),
+					result.getString("sprite"),
+					result.getString("discord_emote"),
+					result.getString("tooltip")
+			);
+		}
+	}
+
 	public boolean projectExists(String projectId) throws SQLException {
 		try (var projectStatement =
 				     this.getConnection().prepareStatement("SELECT id FROM projects WHERE id = ?")) {
@@ -1388,6 +1979,41 @@ public final class DatabaseAccess implements AutoCloseable {
 		}
 	}
 
+	/// @return the sum of the [ChangeVersions] of the given tables, which increases whenever any of them change.
+	public long getChangeVersion(Collection<String> tables) throws SQLException {
+		try (var versionStatement = this.getConnection().prepareStatement("""
+					SELECT COALESCE(SUM(version), 0)
+					FROM change_versions
+					WHERE table_name IN (SELECT value FROM json_each(?))
+				""")) {
+			versionStatement.setString(1, toJsonArray(tables));
+			return versionStatement.executeQuery().getLong(1);
+		}
+	}
+
+	/// Checks which of the given IDs exist in a table, using a single query.
+	///
+	/// @param table the table to check, which must have an `id` column. This is not escaped.
+	/// @return the IDs which exist.
+	public Set<String> getExistingIds(String table, Collection<String> ids) throws SQLException {
+		if (ids.isEmpty()) {
+			return Set.of();
+		}
+
+		try (var idStatement = this.getConnection().prepareStatement(
+				"SELECT id FROM " + table + " WHERE id IN (SELECT value FROM json_each(?))"
+		)) {
+			idStatement.setString(1, toJsonArray(ids));
+			ResultSet idResult = idStatement.executeQuery();
+
+			Set<String> existing = new HashSet<>();
+			while (idResult.next()) {
+				existing.add(idResult.getString("id"));
+			}
+			return existing;
+		}
+	}
+
 	/// @return the project's ID
 	public String checkProjectExists(String projectId) throws SQLException, HypertextException {
 		if (!this.projectExists(projectId)) {
@@ -1402,7 +2028,8 @@ public final class DatabaseAccess implements AutoCloseable {
 					SELECT project_id
 					FROM project_mod_metadata
 					WHERE mod_id = ?
-					ORDER BY -ROWID
+					ORDER BY ROWID DESC
+					LIMIT 1
 				""")) {
 			projectModMetadataStatement.setString(1, modId);
 			ResultSet projectMetadataResult = projectModMetadataStatement.executeQuery();
@@ -1418,8 +2045,23 @@ public final class DatabaseAccess implements AutoCloseable {
 	// Submissions
 
 	public String getLatestSubmissionIdFromModId(String modId) throws SQLException, HypertextException {
-		Project project = this.getProjectFromId(this.getLatestProjectIdFromModId(modId));
-		return project.submissions().getLast();
+		String projectId = this.getLatestProjectIdFromModId(modId);
+		try (var submissionStatement = this.getConnection().prepareStatement("""
+					SELECT id
+					FROM submissions
+					WHERE project_id = ?
+					ORDER BY ROWID DESC
+					LIMIT 1
+				""")) {
+			submissionStatement.setString(1, projectId);
+			ResultSet submissionResult = submissionStatement.executeQuery();
+
+			if (!submissionResult.isBeforeFirst()) {
+				throw new NotFoundException("Project with mod ID " + modId + " does not have any submissions");
+			}
+
+			return submissionResult.getString("id");
+		}
 	}
 
 	public boolean areSubmissionsOpenForEvent(String eventId) throws SQLException {
@@ -1440,23 +2082,31 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public String createEmptySubmission(String eventId, String projectId) throws SQLException {
+		this.invalidateProject(projectId);
 		try (
 				var submissionsStatement = this.getConnection().prepareStatement("""
 					INSERT INTO submissions (id, event_id, project_id, submitted)
 					VALUES (?, ?, ?, ?)
 				""")
 		) {
-			String submissionId = NaturalId.generate("submissions", "id", null, 5);
-			submissionsStatement.setString(1, submissionId);
-			submissionsStatement.setString(2, eventId);
-			submissionsStatement.setString(3, projectId);
-			submissionsStatement.setLong(4, System.currentTimeMillis());
-			submissionsStatement.executeUpdate();
-			return submissionId;
+			return this.insertWithNaturalId("submissions", submissionId -> {
+				submissionsStatement.setString(1, submissionId);
+				submissionsStatement.setString(2, eventId);
+				submissionsStatement.setString(3, projectId);
+				submissionsStatement.setLong(4, System.currentTimeMillis());
+				submissionsStatement.executeUpdate();
+			});
 		}
 	}
 
-	public void populateSubmission(String projectId, String submissionId, SubmissionPlatform platform) throws SQLException, HypertextException {
+	/// @param metadata the metadata of the project the platform points to, from [MetadataUtils#getMetadata].
+	public void populateSubmission(
+			String projectId,
+			String submissionId,
+			SubmissionPlatform platform,
+			ProjectMetadata metadata
+	) throws SQLException, HypertextException {
+		this.invalidateProject(projectId);
 		try (
 				var projectModMetadataStatement = this.getConnection().prepareStatement("""
 					INSERT INTO project_mod_metadata (project_id, mod_id, name, description, source_url)
@@ -1464,18 +2114,11 @@ public final class DatabaseAccess implements AutoCloseable {
 					ON CONFLICT(project_id) DO UPDATE SET mod_id = excluded.mod_id, name = excluded.name, description = excluded.description, source_url = excluded.source_url
 				""")
 		) {
-			ProjectMetadata metadata = null;
-
 			if (platform instanceof ModrinthSubmissionPlatform modrinth) {
-				metadata = MetadataUtils.getMetadataFromModrinth(modrinth.projectId(), modrinth.versionId());
 				populateModrinthSubmission(submissionId, modrinth);
-			}
-			if (platform instanceof DownloadUrlSubmissionPlatform downloadUrl) {
-				metadata = MetadataUtils.getMetadataFromDownloadUrl(downloadUrl.downloadUrl());
+			} else if (platform instanceof DownloadUrlSubmissionPlatform downloadUrl) {
 				populateDownloadUrlSubmission(submissionId, downloadUrl);
-			}
-
-			if (metadata == null) {
+			} else {
 				throw new InternalServerException("Platform '" + platform.typeName() + "' not implemented.");
 			}
 
@@ -1525,6 +2168,18 @@ public final class DatabaseAccess implements AutoCloseable {
 	public void deleteSubmission(String submissionId) throws SQLException {
 		Connection connection = this.getConnection();
 
+		try (var projectIdStatement = connection.prepareStatement("""
+					SELECT project_id
+					FROM submissions
+					WHERE id = ?
+				""")) {
+			projectIdStatement.setString(1, submissionId);
+			ResultSet projectIdResult = projectIdStatement.executeQuery();
+			if (projectIdResult.isBeforeFirst()) {
+				this.invalidateProject(projectIdResult.getString("project_id"));
+			}
+		}
+
 		try (
 				var submissionsStatement = connection.prepareStatement("""
 					DELETE FROM submissions
@@ -1634,6 +2289,57 @@ public final class DatabaseAccess implements AutoCloseable {
 		}
 	}
 
+	/// Batched version of [#getSubmissionPlatform(String)].
+	///
+	/// @return the platform of each submission, keyed by submission ID.
+	private Map<String, SubmissionPlatform> getSubmissionPlatforms(
+			Collection<String> submissionIds
+	) throws SQLException, HypertextException {
+		try (
+				var modrinthSubmissionTypeStatement = this.getConnection().prepareStatement("""
+					SELECT submission_id, modrinth_id, version_id
+					FROM submission_platform_modrinth
+					WHERE submission_id IN (SELECT value FROM json_each(?))
+				""");
+				var downloadUrlSubmissionTypeStatement = this.getConnection().prepareStatement("""
+					SELECT submission_id, download_url
+					FROM submission_platform_download_url
+					WHERE submission_id IN (SELECT value FROM json_each(?))
+				""")
+		) {
+			String submissionIdsJson = toJsonArray(submissionIds);
+			Map<String, SubmissionPlatform> platforms = new HashMap<>();
+
+			// Download URLs go first so Modrinth takes priority, the same as in getSubmissionPlatform.
+			downloadUrlSubmissionTypeStatement.setString(1, submissionIdsJson);
+			ResultSet downloadUrlSubmissionTypeResult = downloadUrlSubmissionTypeStatement.executeQuery();
+			while (downloadUrlSubmissionTypeResult.next()) {
+				platforms.put(
+						downloadUrlSubmissionTypeResult.getString("submission_id"),
+						new DownloadUrlSubmissionPlatform(downloadUrlSubmissionTypeResult.getString("download_url"))
+				);
+			}
+
+			modrinthSubmissionTypeStatement.setString(1, submissionIdsJson);
+			ResultSet modrinthSubmissionTypeResult = modrinthSubmissionTypeStatement.executeQuery();
+			while (modrinthSubmissionTypeResult.next()) {
+				platforms.put(
+						modrinthSubmissionTypeResult.getString("submission_id"),
+						new ModrinthSubmissionPlatform(
+								modrinthSubmissionTypeResult.getString("modrinth_id"),
+								modrinthSubmissionTypeResult.getString("version_id")
+						)
+				);
+			}
+
+			if (platforms.size() < submissionIds.size()) {
+				throw new InternalServerException("Submission does not have a valid 'platform'");
+			}
+
+			return platforms;
+		}
+	}
+
 	@Nullable
 	public String getSubmissionId(String projectId, String eventId) throws SQLException {
 		try (var submissionsStatement = this.getConnection().prepareStatement("""
@@ -1722,13 +2428,14 @@ public final class DatabaseAccess implements AutoCloseable {
 				VALUES (?, ?, ?)
 			""");
 		) {
-			String eventId = NaturalId.generate("events", "id", null, 5);
-
-			eventStatement.setString(1, eventId);
-			eventStatement.setString(2, slug);
-			eventStatement.setString(3, getGenreSlug(genreId));
-			eventStatement.setString(4, genreId);
-			eventStatement.executeUpdate();
+			String genreSlug = getGenreSlug(genreId);
+			String eventId = this.insertWithNaturalId("events", id -> {
+				eventStatement.setString(1, id);
+				eventStatement.setString(2, slug);
+				eventStatement.setString(3, genreSlug);
+				eventStatement.setString(4, genreId);
+				eventStatement.executeUpdate();
+			});
 
 			eventMetadataStatement.setString(1, eventId);
 			eventMetadataStatement.setString(2, name);
@@ -1756,6 +2463,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void addUserRoleToEvent(String eventId, String roleKey, String roleId) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var eventRolesStatement = this.getConnection().prepareStatement("""
 					INSERT INTO event_roles (event_id, role_key, role_id)
@@ -1770,6 +2478,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void removeUserRoleFromEvent(String eventId, String roleKey) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var eventRolesStatement = this.getConnection().prepareStatement("""
 					DELETE FROM event_roles
@@ -1783,6 +2492,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setEventName(String eventId, String name) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE event_metadata
@@ -1797,6 +2507,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setEventDescription(String eventId, @Nullable String description) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE event_metadata
@@ -1815,6 +2526,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setEventMcModLoader(String eventId, String modLoader) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE event_platform_minecraft
@@ -1829,6 +2541,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setEventMcGameVersion(String eventId, String gameVersion) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE event_platform_minecraft
@@ -1843,6 +2556,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setEventRegistrationOpen(String eventId, Instant time) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE event_times
@@ -1857,6 +2571,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setEventRegistrationClose(String eventId, Instant time) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE event_times
@@ -1871,6 +2586,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setEventDevelopmentStart(String eventId, Instant time) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE event_times
@@ -1885,6 +2601,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setEventDevelopmentEnd(String eventId, Instant time) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE event_times
@@ -1899,6 +2616,7 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public void setEventPackFreeze(String eventId, Instant time) throws SQLException {
+		this.invalidateEvent(eventId);
 		try (
 				var statement = this.getConnection().prepareStatement("""
 					UPDATE event_times
@@ -1912,22 +2630,19 @@ public final class DatabaseAccess implements AutoCloseable {
 		}
 	}
 
-	public List<Event> getEvents() throws SQLException, HypertextException {
+	/// Gets a page of events using a constant amount of queries.
+	public Page<Event> getEvents(PageRequest page) throws SQLException, HypertextException {
 		try (var eventStatement = this.getConnection().prepareStatement("""
-				SELECT slug, genre_slug
+				SELECT ROWID AS row_id, id
 				FROM events
+				WHERE ROWID > ?
+				ORDER BY ROWID
+				LIMIT ?
 			""")) {
-			ResultSet resultSet = eventStatement.executeQuery();
-			List<Event> events = new ArrayList<>();
+			setPage(eventStatement, 1, page);
+			Page<String> eventIds = readPage(eventStatement.executeQuery(), page, resultSet -> resultSet.getString("id"));
 
-			while (resultSet.next()) {
-				events.add(getEventBySlug(
-						resultSet.getString("genre_slug"),
-						resultSet.getString("slug")
-				));
-			}
-
-			return events;
+			return new Page<>(this.getEventsFromIds(eventIds.values()), eventIds.next());
 		}
 	}
 
@@ -1949,21 +2664,61 @@ public final class DatabaseAccess implements AutoCloseable {
 		}
 	}
 
-	public List<String> getEventSlugs(String genreSlug) throws SQLException {
+	public Page<String> getEventIds(String genreSlug, PageRequest page) throws SQLException {
 		try (var eventStatement = this.getConnection().prepareStatement("""
-				SELECT slug
+				SELECT ROWID AS row_id, id
 				FROM events
-				WHERE genre_slug = ?
+				WHERE genre_slug = ? AND ROWID > ?
+				ORDER BY ROWID
+				LIMIT ?
 			""")) {
 			eventStatement.setString(1, genreSlug);
-			ResultSet eventResult = eventStatement.executeQuery();
-			List<String> slugs = new ArrayList<>();
+			setPage(eventStatement, 2, page);
+			return readPage(eventStatement.executeQuery(), page, eventResult -> eventResult.getString("id"));
+		}
+	}
 
-			while (eventResult.next()) {
-				slugs.add(eventResult.getString("slug"));
-			}
+	public Page<String> getEventSlugs(String genreSlug, PageRequest page) throws SQLException {
+		try (var eventStatement = this.getConnection().prepareStatement("""
+				SELECT ROWID AS row_id, slug
+				FROM events
+				WHERE genre_slug = ? AND ROWID > ?
+				ORDER BY ROWID
+				LIMIT ?
+			""")) {
+			eventStatement.setString(1, genreSlug);
+			setPage(eventStatement, 2, page);
+			return readPage(eventStatement.executeQuery(), page, eventResult -> eventResult.getString("slug"));
+		}
+	}
 
-			return slugs;
+	/// @return the [Page#next()] of [#getEvents(PageRequest)], without reading the events.
+	public @Nullable Long getEventsNextCursor(PageRequest page) throws SQLException {
+		try (var eventStatement = this.getConnection().prepareStatement("""
+				SELECT ROWID
+				FROM events
+				WHERE ROWID > ?
+				ORDER BY ROWID
+				LIMIT 2 OFFSET ?
+			""")) {
+			setNextCursorPage(eventStatement, 1, page);
+			return readNextCursor(eventStatement.executeQuery());
+		}
+	}
+
+	/// @return the [Page#next()] of [#getEventIds(String, PageRequest)] and [#getEventSlugs(String, PageRequest)],
+	/// without reading the events.
+	public @Nullable Long getEventsNextCursor(String genreSlug, PageRequest page) throws SQLException {
+		try (var eventStatement = this.getConnection().prepareStatement("""
+				SELECT ROWID
+				FROM events
+				WHERE genre_slug = ? AND ROWID > ?
+				ORDER BY ROWID
+				LIMIT 2 OFFSET ?
+			""")) {
+			eventStatement.setString(1, genreSlug);
+			setNextCursorPage(eventStatement, 2, page);
+			return readNextCursor(eventStatement.executeQuery());
 		}
 	}
 
@@ -2004,6 +2759,14 @@ public final class DatabaseAccess implements AutoCloseable {
 	}
 
 	public Event getEventBySlug(String genreSlug, String eventSlug) throws SQLException, HypertextException {
+		return this.getCached(
+				EntityCaches.EVENTS,
+				genreSlug + "/" + eventSlug,
+				() -> this.loadEventBySlug(genreSlug, eventSlug)
+		);
+	}
+
+	private Event loadEventBySlug(String genreSlug, String eventSlug) throws SQLException, HypertextException {
 		try (
 			 var eventStatement = this.getConnection().prepareStatement("""
 				SELECT id, slug, genre_slug
@@ -2099,65 +2862,180 @@ public final class DatabaseAccess implements AutoCloseable {
 		}
 	}
 
-	public List<Submission> getEventSubmissions(String eventId) throws SQLException, HypertextException {
+	/// Batched version of [#getEventBySlug(String, String)], which uses a constant amount of queries.
+	///
+	/// @return the events, in the same order as `eventIds`. Events which do not exist are skipped.
+	public List<Event> getEventsFromIds(List<String> eventIds) throws SQLException, HypertextException {
 		try (
-				var submissionStatement = this.getConnection().prepareStatement("""
-					SELECT id, project_id, submitted
-					FROM submissions
-					WHERE event_id = ?
+				var eventStatement = this.getConnection().prepareStatement("""
+					SELECT events.id, events.slug, events.genre_slug,
+					       event_metadata.name, event_metadata.description,
+					       event_times.registration_open, event_times.registration_close,
+					       event_times.development_start, event_times.development_end, event_times.pack_freeze,
+					       event_platform_minecraft.mod_loader, event_platform_minecraft.game_version
+					FROM events
+					LEFT JOIN event_metadata ON event_metadata.event_id = events.id
+					LEFT JOIN event_times ON event_times.event_id = events.id
+					LEFT JOIN event_platform_minecraft ON event_platform_minecraft.event_id = events.id
+					WHERE events.id IN (SELECT value FROM json_each(?))
+				""");
+				var rolesStatement = this.getConnection().prepareStatement("""
+					SELECT event_id, role_key, role_id
+					FROM event_roles
+					WHERE event_id IN (SELECT value FROM json_each(?))
 				""")
 		) {
-			submissionStatement.setString(1, eventId);
-			ResultSet submissionResult = submissionStatement.executeQuery();
-			if (!submissionResult.isBeforeFirst()) {
-				return List.of();
+			String eventIdsJson = toJsonArray(eventIds);
+
+			Map<String, Map<String, String>> roles = new HashMap<>();
+			rolesStatement.setString(1, eventIdsJson);
+			ResultSet rolesResultSet = rolesStatement.executeQuery();
+			while (rolesResultSet.next()) {
+				roles.computeIfAbsent(rolesResultSet.getString("event_id"), _ -> new LinkedHashMap<>())
+						.put(rolesResultSet.getString("role_key"), rolesResultSet.getString("role_id"));
 			}
 
-			List<Submission> submissions = new ArrayList<>();
+			Map<String, Event> events = new HashMap<>();
+			eventStatement.setString(1, eventIdsJson);
+			ResultSet eventResultSet = eventStatement.executeQuery();
+			while (eventResultSet.next()) {
+				String eventId = eventResultSet.getString("id");
+				String eventSlug = eventResultSet.getString("slug");
+				String genreSlug = eventResultSet.getString("genre_slug");
 
-			while (submissionResult.next()) {
-				String submissionId = submissionResult.getString("id");
-				SubmissionPlatform platform = getSubmissionPlatform(submissionId);
+				if (eventResultSet.getString("name") == null) {
+					throw new InternalServerException("Event '" + genreSlug + "/" + eventSlug + "' does not have associated metadata");
+				}
 
-				submissions.add(new Submission(
-						submissionId,
+				if (eventResultSet.getObject("registration_open") == null) {
+					throw new InternalServerException("Event '" + genreSlug + "/" + eventSlug + "' does not have associated times");
+				}
+
+				if (eventResultSet.getString("mod_loader") == null) {
+					throw new InternalServerException("Event '" + genreSlug + "/" + eventSlug + "' does not have an associated platform");
+				}
+
+				events.put(eventId, new Event(
 						eventId,
-						Instant.ofEpochMilli(submissionResult.getLong("submitted")),
-						this.getProjectFromId(submissionResult.getString("project_id")),
-						platform
+						eventSlug,
+						new EventMetadata(
+								eventResultSet.getString("name"),
+								eventResultSet.getString("description")
+						),
+						new EventTimes(
+								Instant.ofEpochMilli(eventResultSet.getLong("registration_open")),
+								Instant.ofEpochMilli(eventResultSet.getLong("registration_close")),
+								Instant.ofEpochMilli(eventResultSet.getLong("development_start")),
+								Instant.ofEpochMilli(eventResultSet.getLong("development_end")),
+								Instant.ofEpochMilli(eventResultSet.getLong("pack_freeze"))
+						),
+						new MinecraftEventPlatform(
+								eventResultSet.getString("mod_loader"),
+								eventResultSet.getString("game_version")
+						),
+						roles.getOrDefault(eventId, new LinkedHashMap<>())
 				));
 			}
 
-			return submissions;
+			List<Event> result = new ArrayList<>(eventIds.size());
+			for (String eventId : eventIds) {
+				Event event = events.get(eventId);
+				if (event != null) {
+					result.add(event);
+				}
+			}
+
+			return result;
 		}
 	}
 
-	public List<String> getEventSubmissionIds(String eventId) throws SQLException, HypertextException {
+	/// Gets a page of submissions to an event, along with their projects and platforms, using a constant amount of queries.
+	public Page<Submission> getEventSubmissions(String eventId, PageRequest page) throws SQLException, HypertextException {
 		try (
 				var submissionStatement = this.getConnection().prepareStatement("""
-					SELECT id
+					SELECT ROWID AS row_id, id, project_id, submitted
 					FROM submissions
-					WHERE event_id = ?
+					WHERE event_id = ? AND ROWID > ?
+					ORDER BY ROWID
+					LIMIT ?
 				""")
 		) {
+			record SubmissionRow(String id, String projectId, Instant submitted) {
+			}
+
 			submissionStatement.setString(1, eventId);
-			ResultSet submissionResult = submissionStatement.executeQuery();
-			if (!submissionResult.isBeforeFirst()) {
-				return List.of();
+			setPage(submissionStatement, 2, page);
+			Page<SubmissionRow> submissionRows = readPage(submissionStatement.executeQuery(), page, submissionResult -> new SubmissionRow(
+					submissionResult.getString("id"),
+					submissionResult.getString("project_id"),
+					Instant.ofEpochMilli(submissionResult.getLong("submitted"))
+			));
+			List<SubmissionRow> rows = submissionRows.values();
+			if (rows.isEmpty()) {
+				return new Page<>(List.of(), null);
 			}
 
-			List<String> submissionIds = new ArrayList<>();
+			Map<String, SubmissionPlatform> platforms = this.getSubmissionPlatforms(
+					rows.stream().map(SubmissionRow::id).toList()
+			);
+			Map<String, Project> projects = this.getProjectsFromIds(
+					rows.stream().map(SubmissionRow::projectId).collect(Collectors.toCollection(LinkedHashSet::new))
+			);
 
-			while (submissionResult.next()) {
-				submissionIds.add(submissionResult.getString("id"));
+			List<Submission> submissions = new ArrayList<>(rows.size());
+			for (SubmissionRow row : rows) {
+				submissions.add(new Submission(
+						row.id(),
+						eventId,
+						row.submitted(),
+						projects.get(row.projectId()),
+						platforms.get(row.id())
+				));
 			}
 
-			return submissionIds;
+			return new Page<>(submissions, submissionRows.next());
+		}
+	}
+
+	public Page<String> getEventSubmissionIds(String eventId, PageRequest page) throws SQLException {
+		try (
+				var submissionStatement = this.getConnection().prepareStatement("""
+					SELECT ROWID AS row_id, id
+					FROM submissions
+					WHERE event_id = ? AND ROWID > ?
+					ORDER BY ROWID
+					LIMIT ?
+				""")
+		) {
+			submissionStatement.setString(1, eventId);
+			setPage(submissionStatement, 2, page);
+			return readPage(submissionStatement.executeQuery(), page, submissionResult -> submissionResult.getString("id"));
+		}
+	}
+
+	/// @return the [Page#next()] of [#getEventSubmissions(String, PageRequest)] and
+	/// [#getEventSubmissionIds(String, PageRequest)], without reading the submissions.
+	public @Nullable Long getEventSubmissionsNextCursor(String eventId, PageRequest page) throws SQLException {
+		try (
+				var submissionStatement = this.getConnection().prepareStatement("""
+					SELECT ROWID
+					FROM submissions
+					WHERE event_id = ? AND ROWID > ?
+					ORDER BY ROWID
+					LIMIT 2 OFFSET ?
+				""")
+		) {
+			submissionStatement.setString(1, eventId);
+			setNextCursorPage(submissionStatement, 2, page);
+			return readNextCursor(submissionStatement.executeQuery());
 		}
 	}
 
+	/// Returns the connection to its pool, which rolls back anything that was not [committed][#commit()].
 	@Override
 	public void close() throws Exception {
-		this.connection.ifPresent(Connection::close);
+		if (this.ownsConnection) {
+			this.connection.ifPresent(Connection::close);
+		}
 	}
 }
@@ -0,0 +1,51 @@
+package net.modgarden.backend.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import net.modgarden.backend.ModGardenBackend;
+
+/// Maintenance for the database file itself, run by the [net.modgarden.backend.util.MaintenanceScheduler].
+///
+/// These run on the writer connection outside of a transaction, as SQLite doesn't allow checkpoints within one.
+/// Borrowing the writer means they wait for the [WriteExecutor]'s current group to commit, rather than competing
+/// with it for the write lock.
+public final class DatabaseMaintenance {
+	private DatabaseMaintenance() {
+	}
+
+	/// Copies pages from the WAL back into the database, so that the WAL doesn't keep growing whilst reads are
+	/// ongoing. Passive checkpoints never wait for readers, so pages still in use are left for the next checkpoint.
+	public static void checkpoint() throws SQLException {
+		try (Connection connection = ModGardenBackend.getWriterPool().acquire();
+			 Statement statement = connection.createStatement();
+			 ResultSet result = statement.executeQuery("PRAGMA wal_checkpoint(PASSIVE)")) {
+			ModGardenBackend.LOG.debug("Checkpointed {} of {} WAL pages.", result.getInt(3), result.getInt(2));
+		}
+	}
+
+	/// Updates the statistics the query planner uses, for any tables which have changed enough to need it.
+	public static void optimize() throws SQLException {
+		try (Connection connection = ModGardenBackend.getWriterPool().acquire();
+			 Statement statement = connection.createStatement()) {
+			statement.execute("PRAGMA optimize");
+		}
+	}
+
+	/// Returns free pages to the file system. Only databases created with `auto_vacuum = INCREMENTAL` can be
+	/// vacuumed incrementally, so this does nothing for others.
+	public static void incrementalVacuum() throws SQLException {
+		try (Connection connection = ModGardenBackend.getWriterPool().acquire();
+			 Statement statement = connection.createStatement()) {
+			try (ResultSet autoVacuum = statement.executeQuery("PRAGMA auto_vacuum")) {
+				// 2 is INCREMENTAL.
+				if (autoVacuum.getInt(1) != 2) {
+					return;
+				}
+			}
+			statement.execute("PRAGMA incremental_vacuum");
+		}
+	}
+}
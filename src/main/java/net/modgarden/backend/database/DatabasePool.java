@@ -0,0 +1,284 @@
+package net.modgarden.backend.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.modgarden.backend.ModGardenBackend;
+import net.modgarden.backend.util.FallibleSupplier;
+
+/// A fixed-size pool of SQLite connections.
+///
+/// Connections are opened (and have their [DatabaseFunction]s registered) once when the pool is created,
+/// then lent out by [#acquire()]. Closing a lent connection returns it to the pool instead of closing it.
+///
+/// Each connection keeps a [StatementCache], so [Connection#prepareStatement(String)] reuses statements that were
+/// already compiled on that connection, both within and across requests.
+public final class DatabasePool implements AutoCloseable {
+	private final FallibleSupplier<Connection, SQLException> connectionFactory;
+	private final BlockingQueue<PooledConnection> idle;
+	private final List<PooledConnection> connections;
+	private final Duration acquireTimeout;
+	private final int statementCacheSize;
+
+	private final LongAdder acquisitions = new LongAdder();
+	private final LongAdder timeouts = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final LongAdder statementCacheHits = new LongAdder();
+	private final LongAdder statementCacheMisses = new LongAdder();
+
+	private volatile boolean closed = false;
+
+	private DatabasePool(
+			FallibleSupplier<Connection, SQLException> connectionFactory,
+			int size,
+			Duration acquireTimeout,
+			int statementCacheSize
+	) {
+		this.connectionFactory = connectionFactory;
+		this.idle = new ArrayBlockingQueue<>(size);
+		this.connections = new ArrayList<>(size);
+		this.acquireTimeout = acquireTimeout;
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	/// Creates a pool and eagerly opens all of its connections.
+	///
+	/// @param connectionFactory creates a fully set up connection, including any [DatabaseFunction]s.
+	/// @param size the amount of connections to keep open.
+	/// @param acquireTimeout how long [#acquire()] may wait for a connection before failing.
+	/// @param statementCacheSize the amount of prepared statements to cache per connection, `0` disables caching.
+	public static DatabasePool create(
+			FallibleSupplier<Connection, SQLException> connectionFactory,
+			int size,
+			Duration acquireTimeout,
+			int statementCacheSize
+	) throws SQLException {
+		if (size < 1) {
+			throw new IllegalArgumentException("Database pool size must be at least 1, got " + size);
+		}
+
+		DatabasePool pool = new DatabasePool(connectionFactory, size, acquireTimeout, statementCacheSize);
+		try {
+			for (int i = 0; i < size; i++) {
+				PooledConnection connection = pool.open();
+				pool.connections.add(connection);
+				pool.idle.add(connection);
+			}
+		} catch (SQLException ex) {
+			pool.close();
+			throw ex;
+		}
+		return pool;
+	}
+
+	/// Borrows a connection from the pool, waiting up to the configured timeout if none are idle.
+	///
+	/// The returned connection **must** be closed, preferably through try-with-resources,
+	/// which returns it to the pool.
+	public Connection acquire() throws SQLException {
+		if (this.closed) {
+			throw new SQLException("Database pool is closed");
+		}
+
+		long start = System.nanoTime();
+		PooledConnection connection;
+		try {
+			connection = this.idle.poll(this.acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted whilst waiting for a database connection", ex);
+		}
+		long waited = System.nanoTime() - start;
+
+		if (connection == null) {
+			this.timeouts.increment();
+			ModGardenBackend.LOG.warn("Timed out after {}ms waiting for a database connection.", this.acquireTimeout.toMillis());
+			throw new SQLException("Timed out waiting for a database connection");
+		}
+
+		this.acquisitions.increment();
+		this.totalWaitNanos.add(waited);
+		this.maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+		return this.lend(connection);
+	}
+
+	private PooledConnection open() throws SQLException {
+		Connection connection = this.connectionFactory.get();
+		return new PooledConnection(
+				connection,
+				new StatementCache(connection, this.statementCacheSize, this.statementCacheHits, this.statementCacheMisses)
+		);
+	}
+
+	private Connection lend(PooledConnection connection) {
+		return (Connection) Proxy.newProxyInstance(
+				DatabasePool.class.getClassLoader(),
+				new Class<?>[] { Connection.class },
+				new LentConnection(connection)
+		);
+	}
+
+	private void release(PooledConnection connection) {
+		try {
+			if (connection.connection().isClosed()) {
+				connection = this.replace(connection);
+			} else if (!connection.connection().getAutoCommit()) {
+				// Never hand out a connection with a dangling transaction.
+				connection.connection().rollback();
+				connection.connection().setAutoCommit(true);
+			}
+		} catch (SQLException ex) {
+			ModGardenBackend.LOG.error("Failed to reset pooled database connection, replacing it.", ex);
+			try {
+				connection.close();
+				connection = this.replace(connection);
+			} catch (SQLException ex2) {
+				ModGardenBackend.LOG.error("Failed to replace pooled database connection.", ex2);
+				return;
+			}
+		}
+
+		if (this.closed) {
+			closeQuietly(connection);
+			return;
+		}
+
+		this.idle.offer(connection);
+	}
+
+	private PooledConnection replace(PooledConnection broken) throws SQLException {
+		broken.statements().close();
+		PooledConnection connection = this.open();
+		synchronized (this.connections) {
+			this.connections.remove(broken);
+			this.connections.add(connection);
+		}
+		return connection;
+	}
+
+	public Metrics getMetrics() {
+		long acquisitions = this.acquisitions.sum();
+		return new Metrics(
+				this.connections.size(),
+				this.idle.size(),
+				acquisitions,
+				this.timeouts.sum(),
+				acquisitions == 0 ? Duration.ZERO : Duration.ofNanos(this.totalWaitNanos.sum() / acquisitions),
+				Duration.ofNanos(this.maxWaitNanos.get()),
+				this.statementCacheHits.sum(),
+				this.statementCacheMisses.sum()
+		);
+	}
+
+	@Override
+	public void close() {
+		this.closed = true;
+		synchronized (this.connections) {
+			for (PooledConnection connection : this.connections) {
+				closeQuietly(connection);
+			}
+			this.connections.clear();
+		}
+		this.idle.clear();
+	}
+
+	private static void closeQuietly(PooledConnection connection) {
+		try {
+			connection.close();
+		} catch (SQLException ex) {
+			ModGardenBackend.LOG.error("Failed to close database connection.", ex);
+		}
+	}
+
+	/// A point-in-time snapshot of the pool's usage.
+	///
+	/// @param size the total amount of connections owned by the pool.
+	/// @param idle the amount of connections currently waiting to be acquired.
+	/// @param acquisitions the amount of successful [#acquire()] calls.
+	/// @param timeouts the amount of [#acquire()] calls that gave up waiting.
+	/// @param averageWait the average time spent waiting in [#acquire()].
+	/// @param maxWait the longest time spent waiting in [#acquire()].
+	/// @param statementCacheHits the amount of prepared statements reused from a [StatementCache].
+	/// @param statementCacheMisses the amount of prepared statements that had to be compiled.
+	public record Metrics(
+			int size,
+			int idle,
+			long acquisitions,
+			long timeouts,
+			Duration averageWait,
+			Duration maxWait,
+			long statementCacheHits,
+			long statementCacheMisses
+	) {
+	}
+
+	private record PooledConnection(Connection connection, StatementCache statements) {
+		private void close() throws SQLException {
+			this.statements.close();
+			this.connection.close();
+		}
+	}
+
+	/// Delegates to a pooled connection, returning it to the pool on [Connection#close()].
+	private final class LentConnection implements InvocationHandler {
+		private final PooledConnection connection;
+		private boolean released = false;
+
+		private LentConnection(PooledConnection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close" -> {
+					if (!this.released) {
+						this.released = true;
+						DatabasePool.this.release(this.connection);
+					}
+					return null;
+				}
+				case "isClosed" -> {
+					return this.released || this.connection.connection().isClosed();
+				}
+				case "equals" -> {
+					return proxy == args[0];
+				}
+				case "hashCode" -> {
+					return System.identityHashCode(proxy);
+				}
+				case "toString" -> {
+					return "LentConnection[" + this.connection.connection() + "]";
+				}
+			}
+
+			if (this.released) {
+				throw new SQLException("Connection has already been returned to the pool");
+			}
+
+			if (method.getName().equals("prepareStatement") && args.length == 1) {
+				return this.connection.statements().prepare((String) args[0]);
+			}
+
+			try {
+				return method.invoke(this.connection.connection(), args);
+			} catch (InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package net.modgarden.backend.database;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.modgarden.backend.ModGardenBackend;
+import net.modgarden.backend.data.event.Event;
+import net.modgarden.backend.data.project.Project;
+import net.modgarden.backend.data.user.User;
+import net.modgarden.backend.data.user.role.UserRole;
+import net.modgarden.backend.util.BoundedCache;
+
+/// The caches of entities assembled from the database used by [DatabaseAccess], each holding up to
+/// `ENTITY_CACHE_SIZE` entities.
+///
+/// Entities may only be cached from read-only transactions, and must be invalidated once a transaction that
+/// modifies them has been committed. As a read-only transaction may have started before that commit and still see
+/// the old entity, entities are cached with the [#generation()] from before the transaction started. This is shared
+/// between every cache, as entities include each other.
+public final class EntityCaches {
+	private static final int SIZE = Integer.parseInt(ModGardenBackend.DOTENV.get("ENTITY_CACHE_SIZE", "1024"));
+	private static final AtomicLong GENERATION = new AtomicLong();
+
+	/// Keyed by user ID.
+	static final BoundedCache<String, User> USERS = new BoundedCache<>("users", SIZE, GENERATION);
+	/// Keyed by project ID.
+	static final BoundedCache<String, Project> PROJECTS = new BoundedCache<>("projects", SIZE, GENERATION);
+	/// Keyed by `genre_slug/event_slug`, as that is how events are looked up.
+	static final BoundedCache<String, Event> EVENTS = new BoundedCache<>("events", SIZE, GENERATION);
+	/// Keyed by user role ID.
+	static final BoundedCache<String, UserRole> USER_ROLES = new BoundedCache<>("user_roles", SIZE, GENERATION);
+
+	private EntityCaches() {
+	}
+
+	/// @return a counter which increases whenever anything in any cache is invalidated.
+	static long generation() {
+		return GENERATION.get();
+	}
+
+	public static List<BoundedCache.Metrics> getMetrics() {
+		return List.of(
+				USERS.getMetrics(),
+				PROJECTS.getMetrics(),
+				EVENTS.getMetrics(),
+				USER_ROLES.getMetrics()
+		);
+	}
+}
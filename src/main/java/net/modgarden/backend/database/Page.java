@@ -0,0 +1,12 @@
+package net.modgarden.backend.database;
+
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+/// A slice of rows returned by keyset pagination, ordered by `ROWID`.
+///
+/// @param values the rows in this page.
+/// @param next the `ROWID` to continue after for the next page, or `null` if this is the last page.
+public record Page<T>(List<T> values, @Nullable Long next) {
+}
@@ -0,0 +1,16 @@
+package net.modgarden.backend.database;
+
+/// Which [Page] of rows to read.
+///
+/// @param after only rows with a `ROWID` greater than this are included, `0` starts from the beginning.
+/// @param limit the maximum amount of rows to include.
+public record PageRequest(long after, int limit) {
+	/// Every row, in one page.
+	public static final PageRequest ALL = new PageRequest(0, Integer.MAX_VALUE);
+
+	public PageRequest {
+		if (limit < 1) {
+			throw new IllegalArgumentException("Page limit must be at least 1, got " + limit);
+		}
+	}
+}
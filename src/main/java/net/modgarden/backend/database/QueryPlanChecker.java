@@ -0,0 +1,72 @@
+package net.modgarden.backend.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import net.modgarden.backend.ModGardenBackend;
+
+/// Warns about queries which scan a whole table, by running `EXPLAIN QUERY PLAN` on every distinct SQL string the
+/// first time it is prepared.
+///
+/// This only runs in development mode, so a missing index shows up in the logs as soon as the query is first used.
+final class QueryPlanChecker {
+	static final boolean ENABLED = "development".equals(ModGardenBackend.DOTENV.get("env"));
+
+	// Matches "SCAN users" and "SCAN users USING COVERING INDEX ...", but not virtual tables such as json_each or
+	// "SCAN CONSTANT ROW".
+	private static final Pattern TABLE_SCAN = Pattern.compile("^SCAN (\\w+)\\b(?! VIRTUAL TABLE)");
+
+	private static final Set<String> CHECKED = ConcurrentHashMap.newKeySet();
+
+	private QueryPlanChecker() {
+	}
+
+	static void check(Connection connection, String sql) {
+		if (!CHECKED.add(sql)) {
+			return;
+		}
+
+		List<String> scans;
+		try {
+			scans = findTableScans(connection, sql);
+		} catch (SQLException ex) {
+			ModGardenBackend.LOG.error("Failed to explain query plan for:\n{}", sql.strip(), ex);
+			return;
+		}
+
+		if (!scans.isEmpty()) {
+			ModGardenBackend.LOG.warn("Query performs a full table scan ({}):\n{}", String.join(", ", scans), sql.strip());
+		}
+	}
+
+	/// @return the steps of the statement's query plan which scan a whole table, or nothing if it's a statement whose
+	/// plan isn't checked, such as an `INSERT`.
+	static List<String> findTableScans(Connection connection, String sql) throws SQLException {
+		String statementType = sql.strip().split("\\s", 2)[0].toUpperCase(Locale.ROOT);
+		if (!statementType.equals("SELECT") && !statementType.equals("UPDATE") && !statementType.equals("DELETE")) {
+			return List.of();
+		}
+
+		List<String> scans = new ArrayList<>();
+		try (Statement statement = connection.createStatement()) {
+			ResultSet plan = statement.executeQuery("EXPLAIN QUERY PLAN " + sql);
+			while (plan.next()) {
+				String detail = plan.getString("detail");
+				Matcher matcher = TABLE_SCAN.matcher(detail);
+				if (matcher.find() && !matcher.group(1).equals("CONSTANT")) {
+					scans.add(detail);
+				}
+			}
+		}
+		return scans;
+	}
+}
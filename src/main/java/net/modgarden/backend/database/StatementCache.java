@@ -0,0 +1,192 @@
+package net.modgarden.backend.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.modgarden.backend.ModGardenBackend;
+
+/// A bounded, least-recently-used cache of [PreparedStatement]s for a single pooled connection, keyed by SQL text.
+///
+/// Statements handed out by [#prepare(String)] are reset instead of closed when [PreparedStatement#close()] is
+/// called, so the usual try-with-resources pattern keeps working. If the same SQL is prepared again whilst its cached
+/// statement is still open (e.g. a nested query), an uncached statement is returned instead.
+///
+/// This is not thread-safe, but neither is lending out a connection to more than one thread.
+final class StatementCache {
+	private final Connection connection;
+	private final int capacity;
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LinkedHashMap<String, CachedStatement> statements;
+
+	StatementCache(Connection connection, int capacity, LongAdder hits, LongAdder misses) {
+		this.connection = connection;
+		this.capacity = capacity;
+		this.hits = hits;
+		this.misses = misses;
+		this.statements = new LinkedHashMap<>(16, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+				if (this.size() > StatementCache.this.capacity) {
+					eldest.getValue().evict();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	PreparedStatement prepare(String sql) throws SQLException {
+		if (QueryPlanChecker.ENABLED) {
+			QueryPlanChecker.check(this.connection, sql);
+		}
+
+		if (this.capacity <= 0) {
+			return this.connection.prepareStatement(sql);
+		}
+
+		CachedStatement cached = this.statements.get(sql);
+		if (cached != null && cached.statement.isClosed()) {
+			this.statements.remove(sql);
+			cached = null;
+		}
+
+		if (cached == null) {
+			this.misses.increment();
+			cached = new CachedStatement(this.connection.prepareStatement(sql));
+			this.statements.put(sql, cached);
+		} else if (cached.inUse) {
+			// Still open further up the stack, so this one can't be shared.
+			this.misses.increment();
+			return this.connection.prepareStatement(sql);
+		} else {
+			this.hits.increment();
+		}
+
+		return cached.lend();
+	}
+
+	/// Closes every cached statement. Any statements still lent out are closed once they're returned.
+	void close() {
+		for (CachedStatement cached : this.statements.values()) {
+			cached.evict();
+		}
+		this.statements.clear();
+	}
+
+	private static final class CachedStatement {
+		private final PreparedStatement statement;
+		private boolean inUse = false;
+		private boolean evicted = false;
+
+		private CachedStatement(PreparedStatement statement) {
+			this.statement = statement;
+		}
+
+		private PreparedStatement lend() {
+			this.inUse = true;
+			return (PreparedStatement) Proxy.newProxyInstance(
+					StatementCache.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class },
+					new LentStatement(this)
+			);
+		}
+
+		private void release(List<ResultSet> resultSets) {
+			this.inUse = false;
+			try {
+				// Closing the result sets resets the statement, releasing any read snapshot it holds.
+				for (ResultSet resultSet : resultSets) {
+					resultSet.close();
+				}
+				this.statement.clearParameters();
+				this.statement.clearBatch();
+			} catch (SQLException ex) {
+				ModGardenBackend.LOG.error("Failed to reset cached statement, closing it.", ex);
+				this.evicted = true;
+			}
+
+			if (this.evicted) {
+				this.closeQuietly();
+			}
+		}
+
+		private void evict() {
+			this.evicted = true;
+			if (!this.inUse) {
+				this.closeQuietly();
+			}
+		}
+
+		private void closeQuietly() {
+			try {
+				this.statement.close();
+			} catch (SQLException ex) {
+				ModGardenBackend.LOG.error("Failed to close cached statement.", ex);
+			}
+		}
+	}
+
+	/// Delegates to a cached statement, returning it to the cache on [PreparedStatement#close()].
+	private static final class LentStatement implements InvocationHandler {
+		private final CachedStatement cached;
+		private final List<ResultSet> resultSets = new ArrayList<>(1);
+		private boolean released = false;
+
+		private LentStatement(CachedStatement cached) {
+			this.cached = cached;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close" -> {
+					if (!this.released) {
+						this.released = true;
+						this.cached.release(this.resultSets);
+					}
+					return null;
+				}
+				case "isClosed" -> {
+					return this.released || this.cached.statement.isClosed();
+				}
+				case "equals" -> {
+					return proxy == args[0];
+				}
+				case "hashCode" -> {
+					return System.identityHashCode(proxy);
+				}
+				case "toString" -> {
+					return "CachedStatement[" + this.cached.statement + "]";
+				}
+			}
+
+			if (this.released) {
+				throw new SQLException("Statement has already been returned to the cache");
+			}
+
+			Object result;
+			try {
+				result = method.invoke(this.cached.statement, args);
+			} catch (InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+
+			if (result instanceof ResultSet resultSet) {
+				this.resultSets.add(resultSet);
+			}
+			return result;
+		}
+	}
+}
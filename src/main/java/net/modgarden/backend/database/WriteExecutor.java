@@ -0,0 +1,301 @@
+package net.modgarden.backend.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.modgarden.backend.ModGardenBackend;
+import net.modgarden.backend.endpoint.exception.ServiceUnavailableException;
+import net.modgarden.backend.util.FallibleSupplier;
+
+/// Runs write units one at a time on the writer connection, committing them in groups.
+///
+/// Units that are queued whilst a group is running join that group, up to a maximum group size. If the queue runs dry,
+/// the group waits for more units until its maximum delay has passed since it started, then commits. This turns
+/// many small commits, each with their own fsync, into one per group.
+///
+/// Each unit runs in its own savepoint with [DatabaseAccess] bound to the writer connection, so a unit that throws
+/// is rolled back on its own without affecting the rest of its group.
+public final class WriteExecutor implements AutoCloseable {
+	private final DatabasePool writerPool;
+	private final int maxBatchSize;
+	private final Duration maxBatchDelay;
+	private final Duration timeout;
+	private final BlockingQueue<WriteUnit<?>> queue = new LinkedBlockingQueue<>();
+	private final Thread thread;
+
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder committedUnits = new LongAdder();
+	private final LongAdder failedUnits = new LongAdder();
+	private final LongAdder failedCommits = new LongAdder();
+	private final AtomicInteger largestBatchSize = new AtomicInteger();
+
+	private volatile boolean closed = false;
+
+	/// @param writerPool the pool holding the writer connection, which is borrowed for each group.
+	/// @param maxBatchSize the maximum amount of units to commit together.
+	/// @param maxBatchDelay how long a group may wait for more units once the queue is empty.
+	/// @param timeout how long [#execute(FallibleSupplier)] waits for a unit to be committed.
+	public WriteExecutor(DatabasePool writerPool, int maxBatchSize, Duration maxBatchDelay, Duration timeout) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("Write batch size must be at least 1, got " + maxBatchSize);
+		}
+
+		this.writerPool = writerPool;
+		this.maxBatchSize = maxBatchSize;
+		this.maxBatchDelay = maxBatchDelay;
+		this.timeout = timeout;
+		this.thread = new Thread(this::runLoop, "database-writer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/// Queues a unit of work.
+	///
+	/// @return a future which completes once the group containing the unit has been committed, or exceptionally if
+	/// either the unit or the commit failed.
+	public <T> CompletableFuture<T> submit(FallibleSupplier<T, ? extends Exception> unit) {
+		return this.enqueue(unit).future();
+	}
+
+	private <T> WriteUnit<T> enqueue(FallibleSupplier<T, ? extends Exception> unit) {
+		WriteUnit<T> writeUnit = new WriteUnit<>(unit, new CompletableFuture<>());
+		if (this.closed) {
+			writeUnit.future().completeExceptionally(new SQLException("Write executor is closed"));
+			return writeUnit;
+		}
+
+		this.queue.add(writeUnit);
+		return writeUnit;
+	}
+
+	/// Queues a unit of work and waits for it to be committed.
+	///
+	/// Any exception thrown by the unit is rethrown as-is, so it can still be handled like it was thrown by the caller.
+	///
+	/// @throws ServiceUnavailableException if the unit hasn't started within the executor's timeout, in which case
+	/// it's never run. Once a unit has started, this waits for its result however long it takes, so the caller is
+	/// never told a write failed when it may still be committed.
+	public <T> T execute(FallibleSupplier<T, ? extends Exception> unit) throws Exception {
+		WriteUnit<T> writeUnit = this.enqueue(unit);
+		CompletableFuture<T> future = writeUnit.future();
+		try {
+			try {
+				return future.get(this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+			} catch (TimeoutException ex) {
+				if (writeUnit.cancel()) {
+					throw new ServiceUnavailableException("Timed out waiting for the database", this.timeout);
+				}
+				// The writer has already started it.
+				return future.get();
+			}
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof Exception cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+	private void runLoop() {
+		while (!this.closed || !this.queue.isEmpty()) {
+			WriteUnit<?> first;
+			try {
+				first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ex) {
+				continue;
+			}
+
+			if (first != null) {
+				this.runBatch(first);
+			}
+		}
+	}
+
+	private void runBatch(WriteUnit<?> first) {
+		List<WriteUnit<?>> polled = new ArrayList<>();
+		List<WriteUnit<?>> succeeded = new ArrayList<>();
+		polled.add(first);
+		int batchSize = 0;
+
+		try (Connection connection = this.writerPool.acquire()) {
+			connection.setAutoCommit(false);
+			long deadline = System.nanoTime() + this.maxBatchDelay.toNanos();
+
+			WriteUnit<?> unit = first;
+			while (unit != null) {
+				// Units whose caller stopped waiting are skipped, as nobody will see their result.
+				if (unit.claim()) {
+					batchSize++;
+					if (this.run(connection, unit)) {
+						succeeded.add(unit);
+					}
+				}
+
+				if (batchSize >= this.maxBatchSize) {
+					break;
+				}
+
+				unit = this.queue.poll();
+				long remaining = deadline - System.nanoTime();
+				if (unit == null && remaining > 0) {
+					unit = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+				}
+				if (unit != null) {
+					polled.add(unit);
+				}
+			}
+
+			connection.commit();
+		} catch (Exception ex) {
+			this.failedCommits.increment();
+			ModGardenBackend.LOG.error("Failed to commit a group of {} writes.", batchSize, ex);
+			// Nothing in the group was committed, whether or not it ran, so every unit taken from the queue fails.
+			for (WriteUnit<?> unit : polled) {
+				unit.future().completeExceptionally(ex);
+			}
+			return;
+		} finally {
+			// Covers anything the handler above didn't, so no caller is left waiting forever.
+			for (WriteUnit<?> unit : polled) {
+				if (!succeeded.contains(unit)) {
+					unit.future().completeExceptionally(new SQLException("Write unit was not run"));
+				}
+			}
+		}
+
+		this.batches.increment();
+		this.committedUnits.add(succeeded.size());
+		this.largestBatchSize.accumulateAndGet(batchSize, Math::max);
+		for (WriteUnit<?> unit : succeeded) {
+			unit.complete();
+		}
+	}
+
+	/// @return whether the unit ran successfully and should be completed once its group is committed.
+	private boolean run(Connection connection, WriteUnit<?> unit) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("SAVEPOINT write_unit");
+		}
+
+		try {
+			unit.run(connection);
+		} catch (Throwable t) {
+			this.failedUnits.increment();
+			// Completed first, so the caller sees its own error even if the rollback below fails the group.
+			unit.future().completeExceptionally(t);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("ROLLBACK TO write_unit");
+				statement.execute("RELEASE write_unit");
+			}
+			return false;
+		}
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("RELEASE write_unit");
+		}
+		return true;
+	}
+
+	public Metrics getMetrics() {
+		long batches = this.batches.sum();
+		long committedUnits = this.committedUnits.sum();
+		return new Metrics(
+				this.queue.size(),
+				batches,
+				committedUnits,
+				this.failedUnits.sum(),
+				this.failedCommits.sum(),
+				batches == 0 ? 0 : (double) committedUnits / batches,
+				this.largestBatchSize.get()
+		);
+	}
+
+	/// Stops accepting units, then waits for everything already queued to be committed.
+	@Override
+	public void close() throws InterruptedException {
+		this.closed = true;
+		this.thread.join();
+	}
+
+	/// A point-in-time snapshot of the executor's usage.
+	///
+	/// @param queueDepth the amount of units waiting to be run.
+	/// @param batches the amount of groups that have been committed.
+	/// @param committedUnits the amount of units that have been committed.
+	/// @param failedUnits the amount of units that threw, and were rolled back.
+	/// @param failedCommits the amount of groups that failed to commit.
+	/// @param averageBatchSize the average amount of units committed per group.
+	/// @param largestBatchSize the largest amount of units run in one group.
+	public record Metrics(
+			int queueDepth,
+			long batches,
+			long committedUnits,
+			long failedUnits,
+			long failedCommits,
+			double averageBatchSize,
+			int largestBatchSize
+	) {
+	}
+
+	private static final class WriteUnit<T> {
+		private static final int PENDING = 0;
+		private static final int STARTED = 1;
+		private static final int CANCELLED = 2;
+
+		private final FallibleSupplier<T, ? extends Exception> unit;
+		private final CompletableFuture<T> future;
+		// Claimed by whichever of the writer and the waiting caller gets to it first.
+		private final AtomicInteger state = new AtomicInteger(PENDING);
+		private T result;
+		private DatabaseAccess access;
+
+		private WriteUnit(FallibleSupplier<T, ? extends Exception> unit, CompletableFuture<T> future) {
+			this.unit = unit;
+			this.future = future;
+		}
+
+		private CompletableFuture<T> future() {
+			return this.future;
+		}
+
+		/// Claims the unit for the writer.
+		///
+		/// @return whether it should be run, which it mustn't be if it was cancelled or its future is already done.
+		private boolean claim() {
+			return !this.future.isDone() && this.state.compareAndSet(PENDING, STARTED);
+		}
+
+		/// Cancels the unit if the writer hasn't claimed it yet.
+		///
+		/// @return whether it was cancelled, and so will never be run.
+		private boolean cancel() {
+			if (!this.state.compareAndSet(PENDING, CANCELLED)) {
+				return false;
+			}
+			this.future.cancel(false);
+			return true;
+		}
+
+		private void run(Connection connection) throws Exception {
+			this.access = DatabaseAccess.borrow(connection);
+			this.result = this.access.call(this.unit::get);
+		}
+
+		private void complete() {
+			this.access.invalidateCaches();
+			this.future.complete(this.result);
+		}
+	}
+}
@@ -1,14 +1,18 @@
 package net.modgarden.backend.database.function;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 
 import net.modgarden.backend.data.NaturalId;
 import net.modgarden.backend.database.DatabaseFunction;
 
+/// Created for each connection, as IDs are checked on the connection which is inserting them.
 public class GenerateNaturalIdFunction extends DatabaseFunction {
-	public static final GenerateNaturalIdFunction INSTANCE = new GenerateNaturalIdFunction();
+	private final Connection connection;
 
-	protected GenerateNaturalIdFunction() {}
+	public GenerateNaturalIdFunction(Connection connection) {
+		this.connection = connection;
+	}
 
 	@Override
 	protected void xFunc() throws SQLException {
@@ -16,7 +20,7 @@ public class GenerateNaturalIdFunction extends DatabaseFunction {
 		String key = this.value_text(1);
 		String key2 = this.value_text(2);
 		int length = this.value_int(3);
-		this.result(NaturalId.generate(table, key, key2, length));
+		this.result(NaturalId.generate(this.connection, table, key, key2, length));
 	}
 
 	@Override
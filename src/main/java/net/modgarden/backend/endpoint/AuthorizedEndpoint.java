@@ -6,35 +6,42 @@ import java.sql.SQLException;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Base64;
-import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
-import de.mkammerer.argon2.Argon2Advanced;
-import de.mkammerer.argon2.Argon2Factory;
 import io.javalin.http.Context;
 import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.data.permission.Permission;
 import net.modgarden.backend.data.permission.PermissionPredicate;
 import net.modgarden.backend.data.permission.PermissionScope;
 import net.modgarden.backend.data.permission.Permissions;
+import net.modgarden.backend.database.CredentialCache;
 import net.modgarden.backend.database.DatabaseAccess;
+import net.modgarden.backend.database.WriteExecutor;
 import net.modgarden.backend.endpoint.exception.BadRequestException;
 import net.modgarden.backend.endpoint.exception.ForbiddenException;
 import net.modgarden.backend.endpoint.exception.HypertextException;
+import net.modgarden.backend.endpoint.exception.ServiceUnavailableException;
 import net.modgarden.backend.endpoint.exception.UnauthorizedException;
+import net.modgarden.backend.endpoint.v2.auth.CreateSessionEndpoint;
 import net.modgarden.backend.endpoint.v2.auth.api_keys.GenerateKeyEndpoint;
+import net.modgarden.backend.util.Argon2Executor;
+import net.modgarden.backend.util.FallibleSupplier;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public abstract class AuthorizedEndpoint extends Endpoint {
 	private static final ScopedValue<Permissions> SCOPE_PERMISSIONS = ScopedValue.newInstance();
+	private static final ScopedValue<DatabaseAccess.ScopedApiKey> SCOPE_API_KEY = ScopedValue.newInstance();
 	private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-	/// OWASP [recommends](https://cheatsheetseries.owasp.org/cheatsheets/Password_Storage_Cheat_Sheet.html) Argon2id.
-	private static final Argon2Advanced ARGON =
-			Argon2Factory.createAdvanced(Argon2Factory.Argon2Types.ARGON2id);
 	private final PermissionScope permissionScope;
+	/// The length of the hexadecimal UUID at the start of an API key.
+	private static final int API_KEY_ID_LENGTH = 32;
+	private static final char API_KEY_ID_SEPARATOR = '.';
 	private final static String characters = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!@#$%^&*()-_+=[]{}|/?;:,.<>~";
 	private final static String GARDEN_BOT_CREDENTIALS = Base64.getEncoder().encodeToString(("grbot:" + ModGardenBackend.DOTENV.get("DISCORD_OAUTH_SECRET")).getBytes(StandardCharsets.UTF_8));
 
@@ -52,9 +59,27 @@ public abstract class AuthorizedEndpoint extends Endpoint {
 			return generateSecretString(10);
 	}
 
-	protected static String generateAPIKey() {
+	/// Generates an API key, prefixed with its UUID so that it can be looked up directly when it's used.
+	protected static String generateAPIKey(UUID uuid) {
 		// we use 72 because it divides neatly with 3 (72/3 = 24)
-		return generateSecretString(72);
+		return uuid.toString().replace("-", "") + API_KEY_ID_SEPARATOR + generateSecretString(72);
+	}
+
+	/// @return the UUID an API key is prefixed with, or null if it was issued without one.
+	@Nullable
+	private static UUID parseKeyId(String apiKey) {
+		if (apiKey.length() <= API_KEY_ID_LENGTH || apiKey.charAt(API_KEY_ID_LENGTH) != API_KEY_ID_SEPARATOR) {
+			return null;
+		}
+
+		try {
+			return new UUID(
+					Long.parseUnsignedLong(apiKey, 0, API_KEY_ID_LENGTH / 2, 16),
+					Long.parseUnsignedLong(apiKey, API_KEY_ID_LENGTH / 2, API_KEY_ID_LENGTH, 16)
+			);
+		} catch (NumberFormatException ex) {
+			return null;
+		}
 	}
 
 	/// Generate a secret (e.g. password) in [String] form.
@@ -67,24 +92,43 @@ public abstract class AuthorizedEndpoint extends Endpoint {
 		return stringBuilder.toString();
 	}
 
-	/// Generate a salted hash for a secret (e.g. password).
-	protected static String hashSecret(String secret) {
-		// https://cheatsheetseries.owasp.org/cheatsheets/Password_Storage_Cheat_Sheet.html
-		return ARGON.hash(
-				2,
-				19 * 1024,
-				1,
-				secret.toCharArray()
-		);
+	/// Generate a salted hash for a secret (e.g. password), on the [Argon2Executor].
+	protected static String hashSecret(String secret) throws ServiceUnavailableException {
+		return ModGardenBackend.getArgon2Executor().hash(secret);
 	}
 
-	/// Verify that a secret (e.g. password) matches the given salt and hash.
-	protected static boolean verifySecret(String hash, String secret) {
-		return ARGON.verify(hash, secret.toCharArray());
+	/// Verify that a secret (e.g. password) matches the given salt and hash, on the [Argon2Executor].
+	protected static boolean verifySecret(String hash, String secret) throws ServiceUnavailableException {
+		return ModGardenBackend.getArgon2Executor().verify(hash, secret);
+	}
+
+	/// Replaces an API key's hash in the background if it was created with outdated Argon2 parameters, now that its
+	/// secret is known to be correct.
+	private static void rehashIfNeeded(DatabaseAccess.ApiKey apiKey, String secret) {
+		Argon2Executor argon2 = ModGardenBackend.getArgon2Executor();
+		if (!argon2.needsRehash(apiKey.hash())) {
+			return;
+		}
+
+		argon2.rehash(secret, hash -> ModGardenBackend.getWriteExecutor()
+				.submit(() -> {
+					DatabaseAccess.get().replaceApiKeyHash(apiKey.uuid(), apiKey.hash(), hash);
+					return null;
+				})
+				.exceptionally(ex -> {
+					ModGardenBackend.LOG.warn("Failed to rehash API key {}.", apiKey.uuid(), ex);
+					return null;
+				}));
 	}
 
 	protected abstract Response onRequest(@NotNull Context ctx, String userId, Permissions scopePermissions) throws Exception;
 
+	/// Runs the parts of an authorized write request that only read, before it's queued on the [WriteExecutor].
+	///
+	/// @see Endpoint#prepareWrite(Context)
+	protected void prepareWrite(@NotNull Context ctx, String userId, Permissions scopePermissions) throws Exception {
+	}
+
 	/// Base permissions required to use this endpoint.
 	@Nullable
 	protected PermissionPredicate requiredPermissions() {
@@ -93,6 +137,24 @@ public abstract class AuthorizedEndpoint extends Endpoint {
 
 	@Override
 	public final Response onRequest(@NotNull Context ctx) throws Exception {
+		ValidationResult validationResult = this.authorize(ctx);
+		return bindScope(validationResult)
+				.call(() -> this.onRequest(ctx, validationResult.userId(), validationResult.scopePermissions()));
+	}
+
+	/// Authorizes the request before it's queued, so Argon2 and the credential lookups never hold up the writer.
+	@Override
+	protected final FallibleSupplier<Response, Exception> prepareWrite(@NotNull Context ctx) throws Exception {
+		ValidationResult validationResult = this.authorize(ctx);
+		ScopedValue.Carrier carrier = bindScope(validationResult);
+		carrier.call(() -> {
+			this.prepareWrite(ctx, validationResult.userId(), validationResult.scopePermissions());
+			return null;
+		});
+		return () -> carrier.call(() -> this.onRequest(ctx, validationResult.userId(), validationResult.scopePermissions()));
+	}
+
+	private ValidationResult authorize(Context ctx) throws SQLException, HypertextException {
 		ValidationResult validationResult = validateAuth(ctx);
 		PermissionPredicate requiredPermissions = this.requiredPermissions();
 
@@ -102,8 +164,23 @@ public abstract class AuthorizedEndpoint extends Endpoint {
 			}
 		}
 
-		return ScopedValue.where(SCOPE_PERMISSIONS, validationResult.scopePermissions())
-				.call(() -> this.onRequest(ctx, validationResult.userId(), validationResult.scopePermissions()));
+		if (validationResult.apiKey() != null) {
+			ModGardenBackend.getApiKeyUsageTracker().record(validationResult.apiKey().key().uuid());
+		}
+		return validationResult;
+	}
+
+	private static ScopedValue.Carrier bindScope(ValidationResult validationResult) {
+		ScopedValue.Carrier carrier = ScopedValue.where(SCOPE_PERMISSIONS, validationResult.scopePermissions());
+		if (validationResult.apiKey() != null) {
+			carrier = carrier.where(SCOPE_API_KEY, validationResult.apiKey());
+		}
+		return carrier;
+	}
+
+	/// @return the API key the current request was authenticated with, which is empty for session tokens.
+	protected static Optional<DatabaseAccess.ScopedApiKey> getAuthenticatingApiKey() {
+		return SCOPE_API_KEY.isBound() ? Optional.of(SCOPE_API_KEY.get()) : Optional.empty();
 	}
 
 	protected @Nullable String getProjectId(Context ctx) throws SQLException, HypertextException {
@@ -149,14 +226,20 @@ public abstract class AuthorizedEndpoint extends Endpoint {
 		// we know this is GardenBot. let it bypass everything
 		if (authorized) {
 			scopePermissions = new Permissions(Permission.ADMINISTRATOR);
-			return new ValidationResult("grbot", scopePermissions);
+			return new ValidationResult("grbot", scopePermissions, null);
 		}
 
 		String projectId;
 		projectId = this.getProjectId(ctx);
 
+		DatabaseAccess db = DatabaseAccess.get();
+
+		if (authorization.startsWith("Bearer ")) {
+			return this.validateSession(db, authorization.substring("Bearer ".length()), projectId);
+		}
+
 		if (!authorization.startsWith("Basic ")) {
-			throw new BadRequestException("Only Basic authentication is supported.");
+			throw new BadRequestException("Only Basic and Bearer authentication are supported.");
 		}
 
 		String idSecretPair;
@@ -181,81 +264,194 @@ public abstract class AuthorizedEndpoint extends Endpoint {
 				.skip(1)
 				.collect(Collectors.joining(":"));
 
-		DatabaseAccess db = DatabaseAccess.get();
+		// Headers which were verified recently skip looking up and verifying their key.
+		CredentialCache credentials = CredentialCache.get();
+		long generation = credentials.generation();
+		DatabaseAccess.ScopedApiKey cachedKey = credentials.get(authorization);
+		if (cachedKey != null) {
+			this.checkApiKey(projectId, cachedKey);
+			return new ValidationResult(userId, this.grantApiKeyPermissions(db, userId, projectId, cachedKey), cachedKey);
+		}
+
+		// Keys issued with an ID are looked up directly, so only one hash is ever verified.
+		UUID keyId = parseKeyId(secret);
+		if (keyId != null) {
+			Optional<DatabaseAccess.ScopedApiKey> apiKey = db.getScopedApiKey(keyId, userId);
+			if (apiKey.isEmpty()) {
+				throw new UnauthorizedException();
+			}
 
-		Collection<DatabaseAccess.ApiKey> apiKeyResult = db.getApiKeys(userId);
+			Permissions apiKeyPermissions = this.authorizeApiKey(db, userId, projectId, apiKey.get(), secret);
+			if (apiKeyPermissions == null) {
+				throw new UnauthorizedException();
+			}
+			credentials.put(authorization, apiKey.get(), generation);
+			return new ValidationResult(userId, apiKeyPermissions, apiKey.get());
+		}
+
+		// Keys issued before key IDs existed can only be found by trying each of the user's keys.
+		List<DatabaseAccess.ScopedApiKey> apiKeyResult = db.getScopedApiKeys(userId);
 		if (apiKeyResult.isEmpty()) {
 			throw new UnauthorizedException();
 		}
 
-		Iterator<DatabaseAccess.ApiKey> it = apiKeyResult.iterator();
+		DatabaseAccess.ScopedApiKey authorizedKey = null;
+		Iterator<DatabaseAccess.ScopedApiKey> it = apiKeyResult.iterator();
 		while (!authorized && it.hasNext()) {
-			DatabaseAccess.ApiKey apiKey = it.next();
-			Optional<DatabaseAccess.ApiKeyScope> optionalApiKeyScope = db.getApiKeyScope(apiKey.uuid());
-			if (optionalApiKeyScope.isEmpty()) {
-				throw new UnauthorizedException();
+			DatabaseAccess.ScopedApiKey apiKey = it.next();
+			Permissions apiKeyPermissions = this.authorizeApiKey(db, userId, projectId, apiKey, secret);
+			if (apiKeyPermissions != null) {
+				authorized = true;
+				authorizedKey = apiKey;
+				scopePermissions = apiKeyPermissions;
 			}
+		}
 
-			DatabaseAccess.ApiKeyScope apiKeyScope = optionalApiKeyScope.get();
+		if (!authorized && !ctx.status().isError()) {
+			throw new UnauthorizedException();
+		}
+		if (authorizedKey != null) {
+			credentials.put(authorization, authorizedKey, generation);
+		}
 
-			// forbid expired keys
-			if (Instant.now().isAfter(apiKey.expires())) {
-				db.deleteApiKey(apiKey.uuid());
-				throw new UnauthorizedException();
-			}
+		return new ValidationResult(userId, scopePermissions, authorizedKey);
+	}
 
-			// validate permission scope matches
-			PermissionScope scope = apiKeyScope.scope();
-			if (scope != this.permissionScope && this.permissionScope != PermissionScope.ALL) {
-				throw new ForbiddenException("Permission scope " + scope + " does not match the scope " + this.permissionScope + " for this endpoint.");
-			}
+	/// Checks a [SessionToken], which had its API key verified when it was created.
+	///
+	/// Sessions go through the same scope, project and permission checks as the key they were created from would,
+	/// other than verifying its secret. If you change those checks, change them for both.
+	private ValidationResult validateSession(
+			DatabaseAccess db,
+			String token,
+			@Nullable String projectId
+	) throws SQLException, HypertextException {
+		SessionToken session = SessionToken.parse(token);
+
+		// End sessions whose key has been deleted or has expired since.
+		Optional<DatabaseAccess.ScopedApiKey> apiKey = db.getScopedApiKey(session.keyId(), session.userId());
+		if (apiKey.isEmpty() || Instant.now().isAfter(apiKey.get().key().expires())) {
+			throw new UnauthorizedException();
+		}
 
-			// validate project ID matches
-			if (!(this instanceof GenerateKeyEndpoint) && projectId != null && !projectId.equals(apiKeyScope.projectId())) {
-				throw new ForbiddenException("Project ID " + projectId + " does not match the project ID for this scope.");
-			}
+		this.checkScope(session.scope(), session.projectId(), projectId);
+		Permissions scopePermissions = this.grantPermissions(db, session.userId(), projectId, session.scope(), session.permissions());
+		ModGardenBackend.getApiKeyUsageTracker().record(session.keyId());
+		return new ValidationResult(session.userId(), scopePermissions, null);
+	}
 
-			String hash = apiKey.hash();
-			authorized = verifySecret(hash, secret);
-
-			// give this endpoint the permissions as specified by the API key
-			if (authorized) {
-				Permissions apiKeyPermissions = apiKeyScope.permissions();
-				// Disallow permissions the user doesn't already have
-				switch (scope) {
-					case USER -> {
-						try {
-							scopePermissions = db.getUserPermissions(userId);
-							scopePermissions = scopePermissions.restrictTo(apiKeyPermissions.bits());
-						} catch (HypertextException e) {
-							// Hiding the underlying exception behind 403 Forbidden helps prevent
-							//  side channel attacks where attackers can extract information about
-							//  project teams or users.
-							//  See https://en.wikipedia.org/wiki/Side-channel_attack
-							throw new ForbiddenException();
-						}
-					}
-					case PROJECT -> {
-						try {
-							scopePermissions = db.getProjectMemberPermissions(userId, projectId);
-							scopePermissions = scopePermissions.restrictTo(apiKeyPermissions.bits());
-						} catch (HypertextException e) {
-							// Hiding the underlying exception behind 403 Forbidden helps prevent
-							//  side channel attacks where attackers can extract information about
-							//  project teams or users.
-							//  See https://en.wikipedia.org/wiki/Side-channel_attack
-							throw new ForbiddenException();
-						}
-					}
-				}
-			}
+	/// Checks a single API key against the secret it was presented with.
+	///
+	/// @return the permissions the key grants for this endpoint, or null if the secret doesn't match.
+	@Nullable
+	private Permissions authorizeApiKey(
+			DatabaseAccess db,
+			String userId,
+			@Nullable String projectId,
+			DatabaseAccess.ScopedApiKey scopedApiKey,
+			String secret
+	) throws SQLException, HypertextException {
+		this.checkApiKey(projectId, scopedApiKey);
+
+		if (!verifySecret(scopedApiKey.key().hash(), secret)) {
+			return null;
 		}
+		rehashIfNeeded(scopedApiKey.key(), secret);
 
-		if (!authorized && !ctx.status().isError()) {
+		return this.grantApiKeyPermissions(db, userId, projectId, scopedApiKey);
+	}
+
+	/// Checks that an API key hasn't expired, and that it may be used with this endpoint and project.
+	private void checkApiKey(
+			@Nullable String projectId,
+			DatabaseAccess.ScopedApiKey scopedApiKey
+	) throws HypertextException {
+		DatabaseAccess.ApiKey apiKey = scopedApiKey.key();
+		DatabaseAccess.ApiKeyScope apiKeyScope = scopedApiKey.scope();
+		if (apiKeyScope == null) {
 			throw new UnauthorizedException();
 		}
 
-		return new ValidationResult(userId, scopePermissions);
+		// forbid expired keys, which are deleted by maintenance rather than here, so auth never writes
+		if (Instant.now().isAfter(apiKey.expires())) {
+			throw new UnauthorizedException();
+		}
+
+		this.checkScope(apiKeyScope.scope(), apiKeyScope.projectId(), projectId);
+	}
+
+	/// @return the permissions a verified API key grants for this endpoint.
+	private Permissions grantApiKeyPermissions(
+			DatabaseAccess db,
+			String userId,
+			@Nullable String projectId,
+			DatabaseAccess.ScopedApiKey scopedApiKey
+	) throws SQLException, HypertextException {
+		DatabaseAccess.ApiKeyScope apiKeyScope = Objects.requireNonNull(scopedApiKey.scope());
+
+		// sessions are created for the key's own project, as there's none in the request
+		if (this instanceof CreateSessionEndpoint) {
+			projectId = apiKeyScope.projectId();
+		}
+
+		return this.grantPermissions(db, userId, projectId, apiKeyScope.scope(), apiKeyScope.permissions());
+	}
+
+	/// @throws ForbiddenException if a key with the given scope may not be used with this endpoint and project.
+	private void checkScope(
+			PermissionScope scope,
+			@Nullable String keyProjectId,
+			@Nullable String projectId
+	) throws ForbiddenException {
+		// validate permission scope matches
+		if (scope != this.permissionScope && this.permissionScope != PermissionScope.ALL) {
+			throw new ForbiddenException("Permission scope " + scope + " does not match the scope " + this.permissionScope + " for this endpoint.");
+		}
+
+		// validate project ID matches
+		if (!(this instanceof GenerateKeyEndpoint) && projectId != null && !projectId.equals(keyProjectId)) {
+			throw new ForbiddenException("Project ID " + projectId + " does not match the project ID for this scope.");
+		}
+	}
+
+	/// @return the permissions a key grants for this endpoint, restricted to those the user already has.
+	private Permissions grantPermissions(
+			DatabaseAccess db,
+			String userId,
+			@Nullable String projectId,
+			PermissionScope scope,
+			Permissions apiKeyPermissions
+	) throws SQLException, HypertextException {
+		// give this endpoint the permissions as specified by the API key
+		Permissions scopePermissions = new Permissions();
+		// Disallow permissions the user doesn't already have
+		switch (scope) {
+			case USER -> {
+				try {
+					scopePermissions = db.getUserPermissions(userId);
+					scopePermissions = scopePermissions.restrictTo(apiKeyPermissions.bits());
+				} catch (HypertextException e) {
+					// Hiding the underlying exception behind 403 Forbidden helps prevent
+					//  side channel attacks where attackers can extract information about
+					//  project teams or users.
+					//  See https://en.wikipedia.org/wiki/Side-channel_attack
+					throw new ForbiddenException();
+				}
+			}
+			case PROJECT -> {
+				try {
+					scopePermissions = db.getProjectMemberPermissions(userId, projectId);
+					scopePermissions = scopePermissions.restrictTo(apiKeyPermissions.bits());
+				} catch (HypertextException e) {
+					// Hiding the underlying exception behind 403 Forbidden helps prevent
+					//  side channel attacks where attackers can extract information about
+					//  project teams or users.
+					//  See https://en.wikipedia.org/wiki/Side-channel_attack
+					throw new ForbiddenException();
+				}
+			}
+		}
+		return scopePermissions;
 	}
 
 	private void requireAllPermissions(Permissions scopePermissions, Permissions permissions) throws ForbiddenException {
@@ -270,6 +466,11 @@ public abstract class AuthorizedEndpoint extends Endpoint {
 		requireAllPermissions(scopePermissions, new Permissions(permissions));
 	}
 
-	private record ValidationResult(String userId, Permissions scopePermissions) {
+	/// @param apiKey the API key the request was authenticated with, if any.
+	private record ValidationResult(
+			String userId,
+			Permissions scopePermissions,
+			@Nullable DatabaseAccess.ScopedApiKey apiKey
+	) {
 	}
 }
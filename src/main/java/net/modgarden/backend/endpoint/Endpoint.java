@@ -1,20 +1,42 @@
 package net.modgarden.backend.endpoint;
 
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.JsonOps;
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+import net.modgarden.backend.ModGardenBackend;
+import net.modgarden.backend.database.ChangeVersions;
 import net.modgarden.backend.database.DatabaseAccess;
+import net.modgarden.backend.database.Page;
+import net.modgarden.backend.database.PageRequest;
+import net.modgarden.backend.database.WriteExecutor;
 import net.modgarden.backend.endpoint.exception.BadRequestException;
+import net.modgarden.backend.endpoint.exception.ContentTooLargeException;
 import net.modgarden.backend.endpoint.exception.HypertextException;
+import net.modgarden.backend.endpoint.v2.query.Pagination;
 import net.modgarden.backend.endpoint.v2.query.QueryParameterType;
+import net.modgarden.backend.util.FallibleSupplier;
+import net.modgarden.backend.util.codec.IdCodec;
+import org.eclipse.jetty.server.Request;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 // witnesses would be *real* nice here. *sigh*
 @EndpointPath("/")
@@ -22,6 +44,11 @@ public abstract class Endpoint implements Handler {
 	// *Please* don't touch this. In fact, don't use Regex without using https://regex101.com
 	// and manually testing your change.
 	public static final String SAFE_URL_REGEX = "^[a-zA-Z0-9!@$()`.+,_\"-]*$";
+	/// The largest request body accepted, in bytes.
+	public static final int MAX_BODY_SIZE = Integer.parseInt(ModGardenBackend.DOTENV.get("MAX_REQUEST_BODY_SIZE", "65536"));
+
+	private static final String BODY_ATTRIBUTE = "modgarden.body";
+	private static final String DECODED_BODY_ATTRIBUTE = "modgarden.decoded_body";
 
 	private final String path;
 
@@ -36,8 +63,6 @@ public abstract class Endpoint implements Handler {
 
 	@Override
 	public final void handle(@NotNull Context ctx) throws Exception {
-		ScopedValue.Carrier carrier = DatabaseAccess.bind();
-
 		// validate all path params
 		for (String pathParam : ctx.pathParamMap().values()) {
 			if (!pathParam.matches(SAFE_URL_REGEX)) {
@@ -45,28 +70,257 @@ public abstract class Endpoint implements Handler {
 			}
 		}
 
-		carrier.call(() -> {
-			try (DatabaseAccess _ = DatabaseAccess.get()) {
-				Response response = this.onRequest(ctx);
+		if (!this.isReadOnly(ctx)) {
+			// Everything that doesn't write, such as authentication and remote requests, is done first against a
+			// read-only snapshot, so the writer only runs the mutation itself.
+			FallibleSupplier<Response, Exception> write = DatabaseAccess.bindReadOnly().call(() -> {
+				try (DatabaseAccess db = DatabaseAccess.get()) {
+					FallibleSupplier<Response, Exception> prepared = this.prepareWrite(ctx);
+					db.commit();
+					return prepared;
+				}
+			});
+
+			// Writes are queued so they can be committed alongside other requests' writes. Each request is still
+			// rolled back on its own if it throws.
+			Response response = ModGardenBackend.getWriteExecutor().execute(write);
+			this.writeResponse(ctx, response, null);
+			return;
+		}
 
-				if (!response.getHeaders().isEmpty()) {
-					for (Map.Entry<String, String> entry : response.getHeaders().entrySet()) {
-						ctx.header(entry.getKey(), entry.getValue());
+		// Each request is one transaction, which is committed if the response is written successfully
+		// and rolled back otherwise.
+		DatabaseAccess.bindReadOnly().call(() -> {
+			try (DatabaseAccess db = DatabaseAccess.get()) {
+				// The version is read in the same transaction as the response, so it always matches the body.
+				String eTag = null;
+				List<String> sourceTables = this.getSourceTables();
+				if (!sourceTables.isEmpty()) {
+					// The body must be read from the same snapshot as the version, not from entities cached before it.
+					db.bypassEntityCaches();
+					long version = db.getChangeVersion(sourceTables);
+					eTag = Response.strongETag(version);
+					if (matchesETag(ctx.header(Header.IF_NONE_MATCH), eTag)) {
+						ctx.header(Header.ETAG, eTag);
+						this.writeNextCursor(ctx, version);
+						ctx.status(HttpStatus.NOT_MODIFIED);
+						db.commit();
+						return null;
 					}
-				}
 
-				if (response.getBody() != null) {
-					ctx.json(response.getBody());
+					if (this.isRenderedResponseCached()) {
+						this.respondRendered(ctx, version, eTag);
+						db.commit();
+						return null;
+					}
 				}
 
-				ctx.status(response.getStatus());
+				this.respond(ctx, eTag);
+				db.commit();
 				return null;
 			}
 		});
 	}
 
+	private void respond(Context ctx, @Nullable String eTag) throws Exception {
+		this.writeResponse(ctx, this.onRequest(ctx), eTag);
+	}
+
+	/// Responds with the body rendered by an earlier request at the same version if there is one, rendering and
+	/// caching it otherwise.
+	private void respondRendered(Context ctx, long version, String eTag) throws Exception {
+		RenderedResponseCache cache = RenderedResponseCache.get();
+		String resource = this.getRenderedResponseKey(ctx);
+
+		RenderedResponseCache.Entry entry = cache.get(resource, version);
+		if (entry == null) {
+			Response response = this.onRequest(ctx);
+			Object body = response.getBody();
+			if (body == null || response.getStatus() != HttpStatus.OK.getCode()) {
+				this.writeResponse(ctx, response, eTag);
+				return;
+			}
+
+			byte[] rendered = ctx.jsonMapper().toJsonString(body, body.getClass()).getBytes(StandardCharsets.UTF_8);
+			cache.put(resource, version, rendered, response.getHeaders());
+			writeRenderedHeaders(ctx, response.getHeaders(), eTag);
+			ctx.result(rendered);
+			return;
+		}
+
+		writeRenderedHeaders(ctx, entry.headers(), eTag);
+		// Copied straight from the cached buffer into the response.
+		Channels.newChannel(ctx.outputStream()).write(entry.body().duplicate());
+	}
+
+	/// Sends the cursor to the next page with a `304 Not Modified`, as clients walking through the pages need it
+	/// whether or not they already have this one. It's taken from the rendered response if there is one, otherwise
+	/// from [#getNextCursor(Context, PageRequest)].
+	private void writeNextCursor(Context ctx, long version) throws Exception {
+		if (!this.getQueryParameters().containsAll(Pagination.QUERY_PARAMETERS)) {
+			return;
+		}
+
+		RenderedResponseCache.Entry entry = this.isRenderedResponseCached()
+				? RenderedResponseCache.get().get(this.getRenderedResponseKey(ctx), version)
+				: null;
+		if (entry != null) {
+			String nextCursor = entry.headers().get(Pagination.NEXT_CURSOR_HEADER);
+			if (nextCursor != null) {
+				ctx.header(Pagination.NEXT_CURSOR_HEADER, nextCursor);
+			}
+			return;
+		}
+
+		PageRequest page = Pagination.fromQuery(ctx);
+		if (page.equals(PageRequest.ALL)) {
+			return;
+		}
+
+		Long next = this.getNextCursor(ctx, page);
+		if (next != null) {
+			ctx.header(Pagination.NEXT_CURSOR_HEADER, Pagination.encodeCursor(next));
+		}
+	}
+
+	/// @return the path of the request, followed by the values of the query parameters this endpoint reads, so that
+	/// unrelated query parameters (e.g. cache busters) don't fill the cache with copies of the same response.
+	private String getRenderedResponseKey(Context ctx) {
+		StringBuilder key = new StringBuilder(ctx.path());
+		char separator = '?';
+		for (String parameter : this.getQueryParameters()) {
+			String value = ctx.queryParam(parameter);
+			if (value != null) {
+				key.append(separator).append(parameter).append('=').append(value);
+				separator = '&';
+			}
+		}
+		return key.toString();
+	}
+
+	private static void writeRenderedHeaders(Context ctx, Map<String, String> headers, String eTag) {
+		for (Map.Entry<String, String> entry : headers.entrySet()) {
+			ctx.header(entry.getKey(), entry.getValue());
+		}
+		ctx.header(Header.ETAG, eTag);
+		ctx.contentType(ContentType.APPLICATION_JSON);
+		ctx.status(HttpStatus.OK);
+	}
+
+	private void writeResponse(Context ctx, Response response, @Nullable String eTag) {
+		if (eTag != null && response.getStatus() == HttpStatus.OK.getCode()) {
+			ctx.header(Header.ETAG, eTag);
+		}
+
+		if (!response.getHeaders().isEmpty()) {
+			for (Map.Entry<String, String> entry : response.getHeaders().entrySet()) {
+				ctx.header(entry.getKey(), entry.getValue());
+			}
+		}
+
+		ctx.status(response.getStatus());
+
+		Object body = response.getBody();
+		if (body instanceof Stream<?> stream) {
+			writeJsonStream(ctx, stream);
+		} else if (body instanceof Iterable<?> iterable) {
+			// Lists are written an element at a time rather than encoded into one string first.
+			writeJsonStream(ctx, StreamSupport.stream(iterable.spliterator(), false));
+		} else if (body != null) {
+			ctx.json(body);
+		}
+	}
+
+	/// Writes a stream as a JSON array as it's read. If reading or encoding it fails once part of the body has been
+	/// sent, the status can no longer be changed, so the connection is aborted rather than ending the body early,
+	/// which the client would otherwise take as a complete response.
+	private static void writeJsonStream(Context ctx, Stream<?> stream) {
+		try {
+			ctx.writeJsonStream(stream);
+		} catch (RuntimeException ex) {
+			if (!ctx.res().isCommitted()) {
+				ctx.res().resetBuffer();
+				throw ex;
+			}
+
+			ModGardenBackend.LOG.error("Aborting response to {} after it failed mid-stream.", ctx.path(), ex);
+			Request request = Request.getBaseRequest(ctx.req());
+			if (request == null)
+				throw ex;
+			request.getHttpChannel().abort(ex);
+		}
+	}
+
 	public abstract Response onRequest(@NotNull Context ctx) throws Exception;
 
+	/// Runs the parts of a write request that only read, against a read-only snapshot, before it's queued on the
+	/// [WriteExecutor]. Authentication and anything slow, such as remote requests, belong here rather than in
+	/// [#onRequest(Context)], as every other write waits whilst that runs.
+	///
+	/// @return the rest of the request, which is run on the writer connection.
+	protected FallibleSupplier<Response, Exception> prepareWrite(@NotNull Context ctx) throws Exception {
+		return () -> this.onRequest(ctx);
+	}
+
+	/// Whether this endpoint only reads from the database, in which case it runs on a reader connection rather than
+	/// waiting on the [WriteExecutor]. This is true for `GET` and `HEAD` requests, and may be overridden for other
+	/// requests which don't write, such as those that only sign a token.
+	protected boolean isReadOnly(@NotNull Context ctx) {
+		return DatabaseAccess.isReadOnly(ctx.method());
+	}
+
+	/// The [Page#next()] of the page a paginated endpoint would respond with, for a `304 Not Modified` whose page isn't
+	/// in the [RenderedResponseCache]. This should only read `ROWID`s, not the values on the page.
+	///
+	/// @return the cursor, or `null` if there's no next page, or it isn't worth looking up, which leaves it out of the
+	/// response.
+	protected @Nullable Long getNextCursor(@NotNull Context ctx, PageRequest page) throws Exception {
+		return null;
+	}
+
+	/// The tables this endpoint's responses are read from, for conditional requests. When non-empty, successful
+	/// responses are tagged with the [ChangeVersions] of these tables, and requests whose `If-None-Match` matches
+	/// are answered with `304 Not Modified` without calling [#onRequest(Context)].
+	///
+	/// Only override this for responses which don't depend on who is asking, as authentication is skipped too.
+	protected List<String> getSourceTables() {
+		return List.of();
+	}
+
+	/// Whether successful responses should be kept in the [RenderedResponseCache], for frequently requested
+	/// resources. Only takes effect alongside [#getSourceTables()], whose version decides when the cached response
+	/// is outdated.
+	protected boolean isRenderedResponseCached() {
+		return false;
+	}
+
+	/// The query parameters this endpoint's responses depend on. Only these are part of the key responses are kept
+	/// under in the [RenderedResponseCache], so every parameter [#onRequest(Context)] reads must be listed.
+	protected List<String> getQueryParameters() {
+		return List.of();
+	}
+
+	private static boolean matchesETag(@Nullable String ifNoneMatch, String eTag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+
+		for (String candidate : ifNoneMatch.split(",")) {
+			candidate = candidate.strip();
+			if (candidate.equals("*")) {
+				return true;
+			}
+			// If-None-Match uses weak comparison.
+			if (candidate.startsWith("W/")) {
+				candidate = candidate.substring(2);
+			}
+			if (candidate.equals(eTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	public String getPath() {
 		return path;
 	}
@@ -85,9 +339,29 @@ public abstract class Endpoint implements Handler {
 		}
 	}
 
-	protected <T> T decodeBody(Context ctx, Codec<T> codec) throws HypertextException {
-		DataResult<Pair<T, JsonElement>> result = codec.decode(
-				JsonOps.INSTANCE, JsonParser.parseString(ctx.body()));
+	/// Decodes the request body with a codec.
+	///
+	/// The body is only parsed once per request, and only decoded once per codec, so decoding it again (e.g. once
+	/// for authorization and once in [#onRequest(Context)]) returns the same object, or throws the same error.
+	@SuppressWarnings("unchecked")
+	protected <T> T decodeBody(Context ctx, Codec<T> codec) throws HypertextException, SQLException {
+		Map<Codec<?>, DataResult<?>> decoded = ctx.attribute(DECODED_BODY_ATTRIBUTE);
+		if (decoded == null) {
+			decoded = new HashMap<>();
+			ctx.attribute(DECODED_BODY_ATTRIBUTE, decoded);
+		}
+
+		DataResult<T> result = (DataResult<T>) decoded.get(codec);
+		if (result == null) {
+			JsonElement json = this.parseBody(ctx);
+			// IDs referenced by the body are checked together once it's been decoded.
+			try {
+				result = IdCodec.validateDeferred(() -> codec.decode(JsonOps.INSTANCE, json)).map(Pair::getFirst);
+			} catch (IdCodec.LookupException ex) {
+				throw ex.getCause();
+			}
+			decoded.put(codec, result);
+		}
 
 		if (result.isError()) {
 			//noinspection OptionalGetWithoutIsPresent
@@ -96,11 +370,35 @@ public abstract class Endpoint implements Handler {
 
 		T bodyResult;
 		try {
-			bodyResult = result.getOrThrow().getFirst();
+			bodyResult = result.getOrThrow();
 		} catch (IllegalStateException e) {
 			throw this.invalidBody(e.getMessage());
 		}
 
 		return bodyResult;
 	}
+
+	private JsonElement parseBody(Context ctx) throws HypertextException {
+		JsonElement json = ctx.attribute(BODY_ATTRIBUTE);
+		if (json != null) {
+			return json;
+		}
+
+		// Javalin rejects larger bodies before reading them too, but only once they're read.
+		if (ctx.contentLength() > MAX_BODY_SIZE) {
+			throw new ContentTooLargeException("Request body must be at most " + MAX_BODY_SIZE + " bytes");
+		}
+		byte[] body = ctx.bodyAsBytes();
+		if (body.length > MAX_BODY_SIZE) {
+			throw new ContentTooLargeException("Request body must be at most " + MAX_BODY_SIZE + " bytes");
+		}
+
+		try {
+			json = JsonParser.parseString(new String(body, StandardCharsets.UTF_8));
+		} catch (JsonParseException ex) {
+			throw this.invalidBody(ex.getMessage());
+		}
+		ctx.attribute(BODY_ATTRIBUTE, json);
+		return json;
+	}
 }
@@ -0,0 +1,131 @@
+package net.modgarden.backend.endpoint;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.modgarden.backend.ModGardenBackend;
+import org.jetbrains.annotations.Nullable;
+
+/// A bounded, least-recently-used cache of encoded JSON response bodies, for endpoints which opt in with
+/// [Endpoint#isRenderedResponseCached()].
+///
+/// Bodies are stored in direct buffers, so that they're kept outside of the heap, and are written to responses as
+/// they are. Each body is stored alongside the [net.modgarden.backend.database.ChangeVersions] version it was
+/// rendered at, and only served for that version. As any modification to the tables a response is read from
+/// increases that version, a stale body is never served, and is dropped the next time it's looked up.
+///
+/// Holds up to `RENDERED_RESPONSE_CACHE_SIZE_BYTES` bytes of bodies in total.
+public final class RenderedResponseCache {
+	private static final RenderedResponseCache INSTANCE = new RenderedResponseCache(
+			Long.parseLong(ModGardenBackend.DOTENV.get("RENDERED_RESPONSE_CACHE_SIZE_BYTES", "33554432"))
+	);
+
+	private final long capacity;
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+	private long size;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	private RenderedResponseCache(long capacity) {
+		this.capacity = capacity;
+	}
+
+	public static RenderedResponseCache get() {
+		return INSTANCE;
+	}
+
+	/// @param resource the path of the request, and the query parameters the endpoint reads.
+	/// @param version the current version of the tables the response is read from.
+	/// @return the rendered response, or null if it hasn't been rendered at this version.
+	@Nullable
+	synchronized Entry get(String resource, long version) {
+		Entry entry = this.entries.get(resource);
+		if (entry == null) {
+			this.misses.increment();
+			return null;
+		}
+		if (entry.version() != version) {
+			this.remove(resource);
+			this.invalidations.increment();
+			this.misses.increment();
+			return null;
+		}
+		this.hits.increment();
+		return entry;
+	}
+
+	/// Caches a rendered response. Bodies larger than the whole cache are ignored.
+	///
+	/// @param body the UTF-8 encoded JSON, which is copied outside the heap.
+	synchronized void put(String resource, long version, byte[] body, Map<String, String> headers) {
+		if (body.length > this.capacity) {
+			return;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(body.length).put(body).flip().asReadOnlyBuffer();
+		this.remove(resource);
+		this.entries.put(resource, new Entry(version, buffer, Map.copyOf(headers)));
+		this.size += body.length;
+
+		Iterator<Entry> eldest = this.entries.values().iterator();
+		while (this.size > this.capacity && eldest.hasNext()) {
+			this.size -= eldest.next().body().capacity();
+			eldest.remove();
+			this.evictions.increment();
+		}
+	}
+
+	private void remove(String resource) {
+		Entry removed = this.entries.remove(resource);
+		if (removed != null) {
+			this.size -= removed.body().capacity();
+		}
+	}
+
+	public synchronized Metrics getMetrics() {
+		return new Metrics(
+				this.entries.size(),
+				this.size,
+				this.capacity,
+				this.hits.sum(),
+				this.misses.sum(),
+				this.evictions.sum(),
+				this.invalidations.sum()
+		);
+	}
+
+	/// A rendered response.
+	///
+	/// @param version the version of the tables the response was read from when it was rendered.
+	/// @param body the encoded JSON body. Must be [ByteBuffer#duplicate()]d before being read, as it's shared
+	///             between requests.
+	/// @param headers the headers of the response, other than its `ETag`.
+	record Entry(long version, ByteBuffer body, Map<String, String> headers) {
+	}
+
+	/// A point-in-time snapshot of the cache's usage.
+	///
+	/// @param entries the amount of responses currently cached.
+	/// @param size the total size of the cached bodies, in bytes.
+	/// @param capacity the maximum total size of the cached bodies, in bytes.
+	/// @param hits the amount of responses served from the cache.
+	/// @param misses the amount of responses which had to be rendered.
+	/// @param evictions the amount of responses removed to make room for others.
+	/// @param invalidations the amount of responses removed because their tables were modified.
+	public record Metrics(
+			int entries,
+			long size,
+			long capacity,
+			long hits,
+			long misses,
+			long evictions,
+			long invalidations
+	) {
+	}
+}
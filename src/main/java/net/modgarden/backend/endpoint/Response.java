@@ -10,6 +10,8 @@ import org.jetbrains.annotations.Nullable;
 ///
 /// For HTTP errors, see [HypertextException].
 public class Response {
+	private static final long STARTED = System.currentTimeMillis();
+
 	private final int status;
 	private final @Nullable Object body;
 	private final Map<String, String> headers;
@@ -40,6 +42,18 @@ public class Response {
 		return new Response(200);
 	}
 
+	public static Response ok(Object body, Map<String, String> headers) {
+		return new Response(200, body, headers);
+	}
+
+	/// Creates a strong entity tag from a [net.modgarden.backend.database.ChangeVersions] version.
+	///
+	/// The tag also includes when the server started, so responses from a previous build are never treated as
+	/// unchanged.
+	public static String strongETag(long version) {
+		return "\"" + Long.toString(STARTED, 36) + "-" + Long.toString(version, 36) + "\"";
+	}
+
 	public static Response created(String location) {
 		return new Response(201, null, Map.of("Location", location));
 	}
@@ -0,0 +1,95 @@
+package net.modgarden.backend.endpoint;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import javax.crypto.SecretKey;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import net.modgarden.backend.ModGardenBackend;
+import net.modgarden.backend.data.permission.PermissionScope;
+import net.modgarden.backend.data.permission.Permissions;
+import net.modgarden.backend.endpoint.exception.UnauthorizedException;
+import org.jetbrains.annotations.Nullable;
+
+/// A short-lived token signed by the backend, which stands in for the API key it was exchanged from, so that
+/// Argon2 is only paid for once per session rather than on every request.
+///
+/// Tokens are signed with HMAC-SHA256 using `SESSION_TOKEN_SECRET` (Base64-encoded, at least 256 bits). If it isn't
+/// set, a random key is used, meaning sessions are invalidated whenever the backend restarts.
+///
+/// @param userId the user the API key belongs to.
+/// @param keyId the UUID of the API key, so that sessions end when their key is deleted.
+/// @param scope the scope of the API key.
+/// @param projectId the project the API key is scoped to, if any.
+/// @param permissions the permissions of the API key, before they're restricted to the user's own.
+/// @param expires when the session ends, which is never after the API key expires.
+public record SessionToken(
+		String userId,
+		UUID keyId,
+		PermissionScope scope,
+		@Nullable String projectId,
+		Permissions permissions,
+		Instant expires
+) {
+	public static final Duration LIFETIME = Duration.ofMinutes(
+			Long.parseLong(ModGardenBackend.DOTENV.get("SESSION_TOKEN_LIFETIME_MINUTES", "60"))
+	);
+	private static final SecretKey KEY = createKey();
+
+	private static SecretKey createKey() {
+		String secret = ModGardenBackend.DOTENV.get("SESSION_TOKEN_SECRET");
+		if (secret != null) {
+			return Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+		}
+
+		byte[] bytes = new byte[32];
+		new SecureRandom().nextBytes(bytes);
+		return Keys.hmacShaKeyFor(bytes);
+	}
+
+	/// Parses a token, verifying its signature and that it hasn't expired.
+	///
+	/// @throws UnauthorizedException if the token is malformed, forged or expired.
+	public static SessionToken parse(String token) throws UnauthorizedException {
+		try {
+			Claims claims = Jwts.parserBuilder()
+					.setSigningKey(KEY)
+					.build()
+					.parseClaimsJws(token)
+					.getBody();
+
+			return new SessionToken(
+					claims.getSubject(),
+					UUID.fromString(claims.getId()),
+					PermissionScope.fromString(claims.get("scope", String.class)),
+					claims.get("project_id", String.class),
+					// Stored as a string, as JSON numbers can't hold every 64-bit value.
+					new Permissions(claims.get("permissions", String.class)),
+					claims.getExpiration().toInstant()
+			);
+		} catch (JwtException | IllegalArgumentException ex) {
+			throw new UnauthorizedException("Session token is invalid or has expired.");
+		}
+	}
+
+	public String sign() {
+		return Jwts.builder()
+				.setSubject(this.userId)
+				.setId(this.keyId.toString())
+				.claim("scope", this.scope.name())
+				.claim("project_id", this.projectId)
+				.claim("permissions", this.permissions.toLongString())
+				.setExpiration(Date.from(this.expires))
+				.signWith(KEY, SignatureAlgorithm.HS256)
+				.compact();
+	}
+}
@@ -0,0 +1,8 @@
+package net.modgarden.backend.endpoint.exception;
+
+/// Thrown when the client sends a request body larger than the server accepts.
+public class ContentTooLargeException extends HypertextException {
+	public ContentTooLargeException(String message) {
+		super(413, message);
+	}
+}
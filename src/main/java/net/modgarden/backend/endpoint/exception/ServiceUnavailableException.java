@@ -0,0 +1,18 @@
+package net.modgarden.backend.endpoint.exception;
+
+import java.time.Duration;
+
+/// Thrown when the server is too busy to handle a request, which the client should retry later.
+public class ServiceUnavailableException extends HypertextException {
+	private final Duration retryAfter;
+
+	public ServiceUnavailableException(String message, Duration retryAfter) {
+		super(503, message);
+		this.retryAfter = retryAfter;
+	}
+
+	/// @return how long the client should wait before retrying, sent as `Retry-After`.
+	public Duration getRetryAfter() {
+		return this.retryAfter;
+	}
+}
@@ -0,0 +1,64 @@
+package net.modgarden.backend.endpoint.v2.auth;
+
+import static net.modgarden.backend.endpoint.EndpointMethod.Method.POST;
+
+import java.time.Instant;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import io.javalin.http.Context;
+import net.modgarden.backend.data.permission.PermissionScope;
+import net.modgarden.backend.data.permission.Permissions;
+import net.modgarden.backend.database.DatabaseAccess;
+import net.modgarden.backend.endpoint.EndpointMethod;
+import net.modgarden.backend.endpoint.EndpointPath;
+import net.modgarden.backend.endpoint.Response;
+import net.modgarden.backend.endpoint.SessionToken;
+import net.modgarden.backend.endpoint.exception.BadRequestException;
+import net.modgarden.backend.endpoint.v2.AuthEndpoint;
+import net.modgarden.backend.util.codec.ExtraCodecs;
+import org.jetbrains.annotations.NotNull;
+
+/// Exchanges an API key for a [SessionToken], which may be used as `Bearer` authentication until it expires.
+@EndpointMethod(POST)
+@EndpointPath("/v2/auth/session")
+public final class CreateSessionEndpoint extends AuthEndpoint {
+	public CreateSessionEndpoint() {
+		super("session", PermissionScope.ALL, false);
+	}
+
+	@Override
+	public Response onRequest(@NotNull Context ctx, String userId, Permissions scopePermissions) throws Exception {
+		DatabaseAccess.ScopedApiKey apiKey = getAuthenticatingApiKey()
+				.orElseThrow(() -> new BadRequestException("Sessions may only be created with an API key."));
+		DatabaseAccess.ApiKeyScope scope = apiKey.scope();
+
+		Instant expires = Instant.now().plus(SessionToken.LIFETIME);
+		if (expires.isAfter(apiKey.key().expires())) {
+			expires = apiKey.key().expires();
+		}
+
+		SessionToken session = new SessionToken(
+				userId,
+				apiKey.key().uuid(),
+				scope.scope(),
+				scope.projectId(),
+				scope.permissions(),
+				expires
+		);
+		return Response.ok(new SessionResponse(session.sign(), expires));
+	}
+
+	/// Sessions are signed rather than stored, so nothing is written.
+	@Override
+	protected boolean isReadOnly(@NotNull Context ctx) {
+		return true;
+	}
+
+	public record SessionResponse(String token, Instant expires) {
+		public static final Codec<SessionResponse> CODEC = RecordCodecBuilder.create(inst -> inst.group(
+				Codec.STRING.fieldOf("token").forGetter(SessionResponse::token),
+				ExtraCodecs.INSTANT_CODEC.fieldOf("expires").forGetter(SessionResponse::expires)
+		).apply(inst, SessionResponse::new));
+	}
+}
@@ -44,7 +44,7 @@ public final class GenerateKeyEndpoint extends AuthEndpoint {
 		}
 
 		byte[] uuid = UuidUtils.randomBytes();
-		String apiKey = AuthEndpoint.generateAPIKey();
+		String apiKey = AuthEndpoint.generateAPIKey(UuidUtils.fromBytes(uuid));
 		String hash =
 				AuthEndpoint.hashSecret(apiKey);
 
@@ -2,27 +2,29 @@ package net.modgarden.backend.endpoint.v2.auth.api_keys;
 
 import static net.modgarden.backend.endpoint.EndpointMethod.Method.GET;
 
-import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import io.javalin.http.Context;
+import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.data.permission.Permission;
 import net.modgarden.backend.data.permission.PermissionScope;
 import net.modgarden.backend.data.permission.Permissions;
+import net.modgarden.backend.database.ApiKeyUsageTracker;
 import net.modgarden.backend.database.DatabaseAccess;
+import net.modgarden.backend.database.Page;
 import net.modgarden.backend.endpoint.EndpointMethod;
 import net.modgarden.backend.endpoint.EndpointPath;
 import net.modgarden.backend.endpoint.Response;
 import net.modgarden.backend.endpoint.v2.AuthEndpoint;
+import net.modgarden.backend.endpoint.v2.query.Pagination;
 import net.modgarden.backend.util.codec.ExtraCodecs;
-import net.modgarden.backend.util.FallibleFunction;
 import org.jetbrains.annotations.NotNull;
 
 @EndpointMethod(GET)
@@ -39,34 +41,38 @@ public final class ListKeysEndpoint extends AuthEndpoint {
 			Permissions scopePermissions
 	) throws Exception {
 		DatabaseAccess db = DatabaseAccess.get();
+		ApiKeyUsageTracker usageTracker = ModGardenBackend.getApiKeyUsageTracker();
 		String projectId = ctx.queryParam("project_id");
-		FallibleFunction<UUID, Optional<DatabaseAccess.ApiKeyScope>, SQLException> query;
-		if (projectId == null) {
-			query = db::getApiKeyScope;
-		} else {
-			query = (uuid) -> db.getApiKeyScope(uuid, projectId);
-		}
 
-		List<ApiKey> apiKeys = new ArrayList<>();
-		Collection<DatabaseAccess.ApiKey> resultSet = db.getApiKeys(userId);
-		for (DatabaseAccess.ApiKey apiKey : resultSet) {
-			Optional<DatabaseAccess.ApiKeyScope> optionalApiKeyScope = query.apply(apiKey.uuid());
-			if (optionalApiKeyScope.isEmpty()) {
-				continue;
+		// Each key is read alongside its scope, rather than looking up the scope of each key separately.
+		Page<DatabaseAccess.ScopedApiKey> scopedApiKeys = db.getScopedApiKeys(userId, projectId, Pagination.fromQuery(ctx));
+		List<ApiKey> apiKeys = new ArrayList<>(scopedApiKeys.values().size());
+		for (DatabaseAccess.ScopedApiKey scopedApiKey : scopedApiKeys.values()) {
+			DatabaseAccess.ApiKey apiKey = scopedApiKey.key();
+			DatabaseAccess.ApiKeyScope apiKeyScope = Objects.requireNonNull(scopedApiKey.scope());
+
+			// Include uses which are yet to be written.
+			long useCount = apiKey.useCount();
+			Instant lastUsed = apiKey.lastUsed();
+			DatabaseAccess.ApiKeyUsage pendingUsage = usageTracker.getPending(apiKey.uuid());
+			if (pendingUsage != null) {
+				useCount += pendingUsage.count();
+				lastUsed = pendingUsage.lastUsed();
 			}
 
-			DatabaseAccess.ApiKeyScope apiKeyScope = optionalApiKeyScope.get();
 			apiKeys.add(new ApiKey(
 					apiKey.uuid(),
 					apiKeyScope.permissions(),
 					apiKey.expires(),
 					apiKeyScope.scope(),
 					Optional.ofNullable(apiKeyScope.projectId()),
-					apiKey.name()
+					apiKey.name(),
+					useCount,
+					Optional.ofNullable(lastUsed)
 			));
 		}
 
-		return Response.ok(apiKeys);
+		return Pagination.toResponse(new Page<>(apiKeys, scopedApiKeys.next()));
 	}
 
 	public record ApiKey(
@@ -75,7 +81,9 @@ public final class ListKeysEndpoint extends AuthEndpoint {
 			Instant expires,
 			PermissionScope scope,
 			Optional<String> projectId,
-			String name
+			String name,
+			long useCount,
+			Optional<Instant> lastUsed
 	) {
 		public static final Codec<ApiKey> CODEC = RecordCodecBuilder.create(inst -> inst.group(
 				ExtraCodecs.UUID_CODEC.fieldOf("uuid").forGetter(ApiKey::uuid),
@@ -83,7 +91,9 @@ public final class ListKeysEndpoint extends AuthEndpoint {
 				ExtraCodecs.INSTANT_CODEC.fieldOf("expires").forGetter(ApiKey::expires),
 				PermissionScope.CODEC.fieldOf("scope").forGetter(ApiKey::scope),
 				Codec.STRING.optionalFieldOf("project_id").forGetter(ApiKey::projectId),
-				Codec.STRING.fieldOf("name").forGetter(ApiKey::name)
+				Codec.STRING.fieldOf("name").forGetter(ApiKey::name),
+				Codec.LONG.fieldOf("use_count").forGetter(ApiKey::useCount),
+				ExtraCodecs.INSTANT_CODEC.optionalFieldOf("last_used").forGetter(ApiKey::lastUsed)
 		).apply(inst, ApiKey::new));
 	}
 }
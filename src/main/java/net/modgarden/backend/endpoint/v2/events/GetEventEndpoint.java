@@ -2,7 +2,10 @@ package net.modgarden.backend.endpoint.v2.events;
 
 import static net.modgarden.backend.endpoint.EndpointMethod.Method.GET;
 
+import java.util.List;
+
 import io.javalin.http.Context;
+import net.modgarden.backend.database.ChangeVersions;
 import net.modgarden.backend.database.DatabaseAccess;
 import net.modgarden.backend.endpoint.EndpointMethod;
 import net.modgarden.backend.endpoint.EndpointPath;
@@ -46,4 +49,19 @@ public class GetEventEndpoint extends EventsEndpoint {
 			default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryValue.class));
 		});
 	}
+
+	@Override
+	protected List<String> getSourceTables() {
+		return ChangeVersions.EVENT_TABLES;
+	}
+
+	@Override
+	protected boolean isRenderedResponseCached() {
+		return true;
+	}
+
+	@Override
+	protected List<String> getQueryParameters() {
+		return List.of(QueryParameterType.BY_KEY.toString(), QueryParameterType.WITH_VALUE.toString());
+	}
 }
@@ -1,13 +1,20 @@
 package net.modgarden.backend.endpoint.v2.events;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import io.javalin.http.Context;
+import net.modgarden.backend.database.ChangeVersions;
 import net.modgarden.backend.database.DatabaseAccess;
+import net.modgarden.backend.database.PageRequest;
 import net.modgarden.backend.endpoint.EndpointPath;
 import net.modgarden.backend.endpoint.Response;
 import net.modgarden.backend.endpoint.v2.query.QueryKey;
+import net.modgarden.backend.endpoint.v2.query.Pagination;
 import net.modgarden.backend.endpoint.v2.query.QueryParameterType;
 import net.modgarden.backend.endpoint.v2.query.QueryValue;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 @EndpointPath("/v2/events/{genre_id}/{event_id}/submissions")
 public class GetEventSubmissionsEndpoint extends EventsEndpoint {
@@ -19,22 +26,54 @@ public class GetEventSubmissionsEndpoint extends EventsEndpoint {
 	public Response onRequest(@NotNull Context ctx) throws Exception {
 		DatabaseAccess db = DatabaseAccess.get();
 		QueryValue queryValue = QueryValue.fromQuery(ctx, QueryValue.VALUE);
-		String eventId;
-		QueryKey queryKey = QueryKey.fromQuery(ctx, QueryKey.SLUG);
+		PageRequest page = Pagination.fromQuery(ctx);
+		String eventId = this.getEventId(ctx, db);
+
+		return switch (queryValue) {
+		case VALUE -> Pagination.respond(page, request -> db.getEventSubmissions(eventId, request));
+		case ID -> Pagination.respond(page, request -> db.getEventSubmissionIds(eventId, request));
+		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryValue.class));
+		};
+	}
+
+	@Override
+	protected @Nullable Long getNextCursor(@NotNull Context ctx, PageRequest page) throws Exception {
+		DatabaseAccess db = DatabaseAccess.get();
+		QueryValue queryValue = QueryValue.fromQuery(ctx, QueryValue.VALUE);
+		String eventId = this.getEventId(ctx, db);
+
+		return switch (queryValue) {
+		case VALUE, ID -> db.getEventSubmissionsNextCursor(eventId, page);
+		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryValue.class));
+		};
+	}
 
-		switch (queryKey) {
+	private String getEventId(Context ctx, DatabaseAccess db) throws Exception {
+		return switch (QueryKey.fromQuery(ctx, QueryKey.SLUG)) {
 		case ID -> {
 			db.getGenreById(ctx.pathParam("genre_id")); // Ensure the genreId exists
-			eventId = ctx.pathParam("event_id");
+			yield ctx.pathParam("event_id");
 		}
-		case SLUG -> eventId = db.getEventId(db.getGenreBySlug(ctx.pathParam("genre_id")).slug(), ctx.pathParam("event_id"));
+		case SLUG -> db.getEventId(db.getGenreBySlug(ctx.pathParam("genre_id")).slug(), ctx.pathParam("event_id"));
 		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryKey.class));
-		}
+		};
+	}
 
-		return Response.ok(switch (queryValue) {
-		case VALUE -> db.getEventSubmissions(eventId);
-		case ID -> db.getEventSubmissionIds(eventId);
-		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryValue.class));
-		});
+	@Override
+	protected List<String> getSourceTables() {
+		return Stream.concat(ChangeVersions.SUBMISSION_TABLES.stream(), Stream.of("events")).toList();
+	}
+
+	@Override
+	protected boolean isRenderedResponseCached() {
+		return true;
+	}
+
+	@Override
+	protected List<String> getQueryParameters() {
+		return Stream.concat(
+				Stream.of(QueryParameterType.BY_KEY.toString(), QueryParameterType.WITH_VALUE.toString()),
+				Pagination.QUERY_PARAMETERS.stream()
+		).toList();
 	}
 }
@@ -2,15 +2,22 @@ package net.modgarden.backend.endpoint.v2.events;
 
 import static net.modgarden.backend.endpoint.EndpointMethod.Method.GET;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import io.javalin.http.Context;
+import net.modgarden.backend.database.ChangeVersions;
 import net.modgarden.backend.database.DatabaseAccess;
+import net.modgarden.backend.database.PageRequest;
 import net.modgarden.backend.endpoint.EndpointMethod;
 import net.modgarden.backend.endpoint.EndpointPath;
 import net.modgarden.backend.endpoint.Response;
 import net.modgarden.backend.endpoint.v2.query.QueryKey;
+import net.modgarden.backend.endpoint.v2.query.Pagination;
 import net.modgarden.backend.endpoint.v2.query.QueryParameterType;
 import net.modgarden.backend.endpoint.v2.query.QueryValue;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 @EndpointMethod(GET)
 @EndpointPath("/v2/events/{genre_id}")
@@ -22,21 +29,54 @@ public class ListEventsEndpoint extends EventsEndpoint {
 	@Override
 	public Response onRequest(@NotNull Context ctx) throws Exception {
 		DatabaseAccess db = DatabaseAccess.get();
-		String genreSlug;
-		QueryKey queryKey = QueryKey.fromQuery(ctx, QueryKey.SLUG);
 		QueryValue queryValue = QueryValue.fromQuery(ctx, QueryValue.VALUE);
+		PageRequest page = Pagination.fromQuery(ctx);
+		String genreSlug = this.getGenreSlug(ctx, db);
 
-		switch (queryKey) {
-		case SLUG -> genreSlug = db.getGenreBySlug(ctx.pathParam("genre_id")).slug();
-		case ID -> genreSlug = db.getGenreById(ctx.pathParam("genre_id")).slug();
-		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryKey.class));
-		}
+		return switch (queryValue) {
+		case VALUE -> Pagination.respond(page, db::getEvents);
+		case ID -> Pagination.respond(page, request -> db.getEventIds(genreSlug, request));
+		case SLUG -> Pagination.respond(page, request -> db.getEventSlugs(genreSlug, request));
+		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryValue.class));
+		};
+	}
+
+	@Override
+	protected @Nullable Long getNextCursor(@NotNull Context ctx, PageRequest page) throws Exception {
+		DatabaseAccess db = DatabaseAccess.get();
+		QueryValue queryValue = QueryValue.fromQuery(ctx, QueryValue.VALUE);
+		String genreSlug = this.getGenreSlug(ctx, db);
 
-		return Response.ok(switch (queryValue) {
-		case VALUE -> db.getEvents();
-		case ID -> db.getEventIds(genreSlug);
-		case SLUG -> db.getEventSlugs(genreSlug);
+		return switch (queryValue) {
+		case VALUE -> db.getEventsNextCursor(page);
+		case ID, SLUG -> db.getEventsNextCursor(genreSlug, page);
 		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryValue.class));
-		});
+		};
+	}
+
+	private String getGenreSlug(Context ctx, DatabaseAccess db) throws Exception {
+		return switch (QueryKey.fromQuery(ctx, QueryKey.SLUG)) {
+		case SLUG -> db.getGenreBySlug(ctx.pathParam("genre_id")).slug();
+		case ID -> db.getGenreById(ctx.pathParam("genre_id")).slug();
+		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryKey.class));
+		};
+	}
+
+	@Override
+	protected List<String> getSourceTables() {
+		return ChangeVersions.EVENT_TABLES;
+	}
+
+	@Override
+	protected boolean isRenderedResponseCached() {
+		return true;
+	}
+
+	@Override
+	protected List<String> getQueryParameters() {
+		return Stream.concat(
+				Stream.of(QueryParameterType.BY_KEY.toString(), QueryParameterType.WITH_VALUE.toString()),
+				Pagination.QUERY_PARAMETERS.stream()
+		).toList();
 	}
 }
@@ -2,7 +2,10 @@ package net.modgarden.backend.endpoint.v2.projects;
 
 import static net.modgarden.backend.endpoint.EndpointMethod.Method.GET;
 
+import java.util.List;
+
 import io.javalin.http.Context;
+import net.modgarden.backend.database.ChangeVersions;
 import net.modgarden.backend.database.DatabaseAccess;
 import net.modgarden.backend.endpoint.Endpoint;
 import net.modgarden.backend.endpoint.EndpointMethod;
@@ -47,4 +50,9 @@ public class GetProjectEndpoint extends Endpoint {
 
 		return Response.ok(db.getProjectFromId(projectId));
 	}
+
+	@Override
+	protected List<String> getSourceTables() {
+		return ChangeVersions.PROJECT_TABLES;
+	}
 }
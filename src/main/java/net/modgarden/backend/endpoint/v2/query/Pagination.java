@@ -0,0 +1,105 @@
+package net.modgarden.backend.endpoint.v2.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import io.javalin.http.Context;
+import net.modgarden.backend.database.DatabaseAccess;
+import net.modgarden.backend.database.Page;
+import net.modgarden.backend.database.PageRequest;
+import net.modgarden.backend.endpoint.Response;
+import net.modgarden.backend.endpoint.exception.BadRequestException;
+import net.modgarden.backend.endpoint.exception.HypertextException;
+import net.modgarden.backend.util.FallibleFunction;
+
+/// Keyset pagination for list endpoints, through the `limit` and `after` query parameters.
+///
+/// Requests without either parameter get every value, as lists were returned whole before they were paginated.
+///
+/// The cursor passed to `after` is opaque to clients, they should only ever pass back
+/// the value of the [#NEXT_CURSOR_HEADER] of a previous response.
+public final class Pagination {
+	public static final String LIMIT = "limit";
+	public static final String AFTER = "after";
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	/// The query parameters read by [#fromQuery(Context)].
+	public static final List<String> QUERY_PARAMETERS = List.of(LIMIT, AFTER);
+
+	public static final int DEFAULT_LIMIT = 100;
+	public static final int MAX_LIMIT = 1000;
+
+	private Pagination() {
+	}
+
+	public static PageRequest fromQuery(Context ctx) throws HypertextException {
+		String after = ctx.queryParam(AFTER);
+		String limit = ctx.queryParam(LIMIT);
+		if (after == null && limit == null) {
+			return PageRequest.ALL;
+		}
+		return new PageRequest(parseAfter(after), parseLimit(limit));
+	}
+
+	/// Responds with the requested page, or for [PageRequest#ALL], with every value streamed from the database as it's
+	/// written to the response.
+	public static <T, X extends Exception> Response respond(
+			PageRequest request,
+			FallibleFunction<PageRequest, Page<T>, X> pageReader
+	) throws X {
+		if (request.equals(PageRequest.ALL)) {
+			return Response.ok(DatabaseAccess.get().streamAll(pageReader));
+		}
+		return toResponse(pageReader.apply(request));
+	}
+
+	/// @return a response containing the page's values, with a [#NEXT_CURSOR_HEADER] if there are more pages.
+	public static Response toResponse(Page<?> page) {
+		if (page.next() == null) {
+			return Response.ok(page.values());
+		}
+
+		return Response.ok(page.values(), Map.of(NEXT_CURSOR_HEADER, encodeCursor(page.next())));
+	}
+
+	private static int parseLimit(String param) throws HypertextException {
+		if (param == null) {
+			return DEFAULT_LIMIT;
+		}
+
+		int limit;
+		try {
+			limit = Integer.parseInt(param);
+		} catch (NumberFormatException ex) {
+			throw new BadRequestException("Invalid query parameter ('" + LIMIT + "'): " + param);
+		}
+
+		if (limit < 1 || limit > MAX_LIMIT) {
+			throw new BadRequestException("Query parameter '" + LIMIT + "' must be between 1 and " + MAX_LIMIT);
+		}
+
+		return limit;
+	}
+
+	private static long parseAfter(String param) throws HypertextException {
+		if (param == null) {
+			return 0;
+		}
+
+		try {
+			long after = Long.parseLong(new String(Base64.getUrlDecoder().decode(param), StandardCharsets.US_ASCII));
+			if (after > 0) {
+				return after;
+			}
+		} catch (IllegalArgumentException ignored) {
+			// NumberFormatException is an IllegalArgumentException too.
+		}
+
+		throw new BadRequestException("Invalid query parameter ('" + AFTER + "'): " + param);
+	}
+
+	public static String encodeCursor(long rowId) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(rowId).getBytes(StandardCharsets.US_ASCII));
+	}
+}
@@ -1,6 +1,7 @@
 package net.modgarden.backend.endpoint.v2.roles;
 
 import io.javalin.http.Context;
+import net.modgarden.backend.database.ChangeVersions;
 import net.modgarden.backend.database.DatabaseAccess;
 import net.modgarden.backend.endpoint.EndpointMethod;
 import net.modgarden.backend.endpoint.EndpointPath;
@@ -9,6 +10,7 @@ import net.modgarden.backend.endpoint.v2.query.QueryKey;
 import net.modgarden.backend.endpoint.v2.query.QueryParameterType;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.Locale;
 
 import static net.modgarden.backend.endpoint.EndpointMethod.Method.GET;
@@ -36,4 +38,9 @@ public class GetRoleEndpoint extends RolesEndpoint {
 
 		return Response.ok(db.getUserRoleFromId(roleId));
 	}
+
+	@Override
+	protected List<String> getSourceTables() {
+		return ChangeVersions.USER_ROLE_TABLES;
+	}
 }
@@ -7,9 +7,11 @@ import net.modgarden.backend.data.permission.Permission;
 import net.modgarden.backend.data.permission.PermissionPredicate;
 import net.modgarden.backend.data.permission.Permissions;
 import net.modgarden.backend.database.DatabaseAccess;
+import net.modgarden.backend.database.PageRequest;
 import net.modgarden.backend.endpoint.EndpointMethod;
 import net.modgarden.backend.endpoint.EndpointPath;
 import net.modgarden.backend.endpoint.Response;
+import net.modgarden.backend.endpoint.v2.query.Pagination;
 import net.modgarden.backend.endpoint.v2.query.QueryParameterType;
 import net.modgarden.backend.endpoint.v2.query.QueryValue;
 import org.jetbrains.annotations.NotNull;
@@ -36,11 +38,12 @@ public class ListRolesEndpoint extends AuthorizedRolesEndpoint {
 	) throws Exception {
 		DatabaseAccess db = DatabaseAccess.get();
 		QueryValue queryValue = QueryValue.fromQuery(ctx, QueryValue.VALUE);
+		PageRequest page = Pagination.fromQuery(ctx);
 
-		return Response.ok(switch (queryValue) {
-		case VALUE -> db.getUserRoles();
-		case ID -> db.getUserRoleIds();
+		return switch (queryValue) {
+		case VALUE -> Pagination.respond(page, db::getUserRoles);
+		case ID -> Pagination.respond(page, db::getUserRoleIds);
 		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryValue.class));
-		});
+		};
 	}
 }
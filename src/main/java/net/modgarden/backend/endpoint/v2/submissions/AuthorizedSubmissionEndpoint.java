@@ -5,14 +5,19 @@ import java.sql.SQLException;
 import io.javalin.http.Context;
 import net.modgarden.backend.data.permission.PermissionScope;
 import net.modgarden.backend.data.permission.Permissions;
+import net.modgarden.backend.data.project.ProjectMetadata;
+import net.modgarden.backend.data.project.SubmissionPlatform;
 import net.modgarden.backend.endpoint.AuthorizedEndpoint;
 import net.modgarden.backend.endpoint.EndpointPath;
 import net.modgarden.backend.endpoint.Response;
 import net.modgarden.backend.endpoint.exception.HypertextException;
+import net.modgarden.backend.util.MetadataUtils;
 import org.jetbrains.annotations.NotNull;
 
 @EndpointPath("/v2/submissions")
 public abstract class AuthorizedSubmissionEndpoint extends AuthorizedEndpoint {
+	private static final String METADATA_ATTRIBUTE = "modgarden.submission_metadata";
+
 	public AuthorizedSubmissionEndpoint(String path, boolean hasBody) {
 		super(2, "submissions/" + path, PermissionScope.PROJECT);
 	}
@@ -25,6 +30,19 @@ public abstract class AuthorizedSubmissionEndpoint extends AuthorizedEndpoint {
 	@Override
 	protected abstract String getProjectId(Context ctx) throws SQLException, HypertextException;
 
+	/// Gets the metadata of the project a submission platform points to, which is only fetched once per request.
+	///
+	/// This makes remote requests, so call it from [#prepareWrite(Context, String, Permissions)] first, so that
+	/// [#onRequest(Context, String, Permissions)] gets the same metadata without fetching it on the writer.
+	protected ProjectMetadata getMetadata(Context ctx, SubmissionPlatform platform) throws HypertextException {
+		ProjectMetadata metadata = ctx.attribute(METADATA_ATTRIBUTE);
+		if (metadata == null) {
+			metadata = MetadataUtils.getMetadata(platform);
+			ctx.attribute(METADATA_ATTRIBUTE, metadata);
+		}
+		return metadata;
+	}
+
 	@Override
 	public abstract Response onRequest(@NotNull Context ctx, String userId, Permissions scopePermissions) throws Exception;
 }
@@ -35,10 +35,16 @@ public class CreateSubmissionEndpoint extends AuthorizedSubmissionEndpoint {
 		}
 
 		String submissionId = db.createEmptySubmission(request.eventId(), request.projectId());
-		db.populateSubmission(request.projectId(), submissionId, request.platform());
+		db.populateSubmission(request.projectId(), submissionId, request.platform(), this.getMetadata(ctx, request.platform()));
 		return Response.created("/v2/submissions/" + submissionId);
 	}
 
+	@Override
+	protected void prepareWrite(@NotNull Context ctx, String userId, Permissions scopePermissions) throws Exception {
+		Request request = decodeBody(ctx, Request.CODEC);
+		this.getMetadata(ctx, request.platform());
+	}
+
 	@Nullable
 	@Override
 	protected PermissionPredicate requiredPermissions() {
@@ -2,10 +2,13 @@ package net.modgarden.backend.endpoint.v2.submissions;
 
 import static net.modgarden.backend.endpoint.EndpointMethod.Method.GET;
 
+import java.util.List;
 import java.util.Locale;
+import java.util.stream.Stream;
 
 import io.javalin.http.Context;
 import net.modgarden.backend.data.project.Submission;
+import net.modgarden.backend.database.ChangeVersions;
 import net.modgarden.backend.database.DatabaseAccess;
 import net.modgarden.backend.endpoint.Endpoint;
 import net.modgarden.backend.endpoint.EndpointMethod;
@@ -37,4 +40,9 @@ public class GetSubmissionEndpoint extends Endpoint {
 
 		return Response.ok(db.getSubmission(submissionId));
 	}
+
+	@Override
+	protected List<String> getSourceTables() {
+		return Stream.concat(ChangeVersions.SUBMISSION_TABLES.stream(), ChangeVersions.EVENT_TABLES.stream()).toList();
+	}
 }
@@ -62,12 +62,20 @@ public class ModifySubmissionEndpoint extends AuthorizedSubmissionEndpoint {
 
 		if (request.platform() != null) {
 			db.deleteSubmissionData(submissionId);
-			db.populateSubmission(projectId, submissionId, request.platform());
+			db.populateSubmission(projectId, submissionId, request.platform(), this.getMetadata(ctx, request.platform()));
 		}
 
 		return Response.ok();
 	}
 
+	@Override
+	protected void prepareWrite(@NotNull Context ctx, String userId, Permissions scopePermissions) throws Exception {
+		Request request = this.decodeBody(ctx, Request.CODEC);
+		if (request.projectId() == null && request.platform() != null) {
+			this.getMetadata(ctx, request.platform());
+		}
+	}
+
 	@Nullable
 	@Override
 	protected PermissionPredicate requiredPermissions() {
@@ -3,6 +3,7 @@ package net.modgarden.backend.endpoint.v2.users;
 import static net.modgarden.backend.endpoint.EndpointMethod.Method.GET;
 
 import io.javalin.http.Context;
+import net.modgarden.backend.database.ChangeVersions;
 import net.modgarden.backend.database.DatabaseAccess;
 import net.modgarden.backend.endpoint.EndpointMethod;
 import net.modgarden.backend.endpoint.EndpointPath;
@@ -14,6 +15,7 @@ import net.modgarden.backend.endpoint.v2.query.QueryParameterType;
 import net.modgarden.backend.endpoint.v2.query.QueryValue;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.Locale;
 
 @EndpointMethod(GET)
@@ -44,5 +46,9 @@ public class GetUserEndpoint extends UsersEndpoint {
 		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryValue.class));
 		});
 	}
-}
 
+	@Override
+	protected List<String> getSourceTables() {
+		return ChangeVersions.USER_TABLES;
+	}
+}
@@ -5,7 +5,9 @@ import net.modgarden.backend.data.permission.Permission;
 import net.modgarden.backend.data.permission.PermissionPredicate;
 import net.modgarden.backend.data.permission.Permissions;
 import net.modgarden.backend.database.DatabaseAccess;
+import net.modgarden.backend.database.PageRequest;
 import net.modgarden.backend.endpoint.Response;
+import net.modgarden.backend.endpoint.v2.query.Pagination;
 import net.modgarden.backend.endpoint.v2.query.QueryParameterType;
 import net.modgarden.backend.endpoint.v2.query.QueryValue;
 import org.jetbrains.annotations.NotNull;
@@ -30,10 +32,11 @@ public class ListUsersEndpoint extends AuthorizedUsersEndpoint {
 	) throws Exception {
 		DatabaseAccess db = DatabaseAccess.get();
 		QueryValue queryValue = QueryValue.fromQuery(ctx, QueryValue.VALUE);
-		return Response.ok(switch (queryValue) {
-		case VALUE -> db.getUsers();
-		case ID -> db.getUserIds();
-		default -> this.invalidQuery(ctx, QueryParameterType.get(QueryValue.class));
-		});
+		PageRequest page = Pagination.fromQuery(ctx);
+		return switch (queryValue) {
+		case VALUE -> Pagination.respond(page, db::getUsers);
+		case ID -> Pagination.respond(page, db::getUserIds);
+		default -> throw this.invalidQuery(ctx, QueryParameterType.get(QueryValue.class));
+		};
 	}
 }
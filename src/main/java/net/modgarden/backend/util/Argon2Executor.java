@@ -0,0 +1,308 @@
+package net.modgarden.backend.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import de.mkammerer.argon2.Argon2Advanced;
+import de.mkammerer.argon2.Argon2Factory;
+import de.mkammerer.argon2.Argon2Helper;
+import net.modgarden.backend.endpoint.exception.ServiceUnavailableException;
+import org.jetbrains.annotations.Nullable;
+
+/// Runs Argon2 hashing and verification on a fixed amount of threads, so the memory they use at once is bounded.
+///
+/// As each hash uses [Parameters#memoryKib()] of memory, the amount of threads is the memory budget divided by that.
+/// Hashes which can't start immediately wait in a bounded queue. Once the queue is full, or a hash has waited too
+/// long, [ServiceUnavailableException] is thrown so that the client retries later, rather than every request thread
+/// waiting on hashes.
+///
+/// Hashes are always verified with the parameters they were created with, so hashes created before the parameters
+/// changed still verify. See [#needsRehash(String)] for replacing them.
+public final class Argon2Executor implements AutoCloseable {
+	/// OWASP [recommends](https://cheatsheetseries.owasp.org/cheatsheets/Password_Storage_Cheat_Sheet.html) Argon2id
+	/// with at least these parameters.
+	public static final Parameters MINIMUM_PARAMETERS = new Parameters(2, 19 * 1024, 1);
+	private static final Argon2Advanced ARGON = Argon2Factory.createAdvanced(Argon2Factory.Argon2Types.ARGON2id);
+
+	private final Parameters parameters;
+	private final ThreadPoolExecutor executor;
+	private final Duration maxWait;
+
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder timedOut = new LongAdder();
+	private final LongAdder queueNanos = new LongAdder();
+	private final LongAdder hashNanos = new LongAdder();
+
+	/// @param parameters the parameters new hashes are created with.
+	/// @param memoryBudgetKib the most memory that may be used by hashes at once.
+	/// @param queueSize the maximum amount of hashes waiting to start.
+	/// @param maxWait how long a caller may wait for its hash to finish, including time spent in the queue.
+	public Argon2Executor(Parameters parameters, long memoryBudgetKib, int queueSize, Duration maxWait) {
+		int threads = (int) Math.max(1, memoryBudgetKib / parameters.memoryKib());
+		AtomicInteger threadCount = new AtomicInteger();
+
+		this.parameters = parameters;
+		this.maxWait = maxWait;
+		this.executor = new ThreadPoolExecutor(
+				threads,
+				threads,
+				0,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+				runnable -> {
+					Thread thread = new Thread(runnable, "argon2-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy()
+		);
+	}
+
+	/// Reads the parameters pinned by an earlier calibration, calibrating and pinning them if there are none yet, or
+	/// the memory or parallelism they were calibrated for has changed.
+	///
+	/// Calibrating on every start would give slightly different iterations each time, which would make
+	/// [#needsRehash(String)] churn through every hash whenever a measurement came out higher.
+	///
+	/// @param path the file the parameters are pinned in.
+	public static Parameters loadOrCalibrate(
+			Path path,
+			int memoryKib,
+			int parallelism,
+			Duration targetLatency
+	) throws IOException {
+		if (Files.exists(path)) {
+			Parameters pinned = Parameters.fromString(Files.readString(path).strip());
+			if (pinned != null
+					&& pinned.memoryKib() == Math.max(memoryKib, MINIMUM_PARAMETERS.memoryKib())
+					&& pinned.parallelism() == parallelism
+					&& !pinned.isWeakerThan(MINIMUM_PARAMETERS)) {
+				return pinned;
+			}
+		}
+
+		Parameters parameters = calibrate(memoryKib, parallelism, targetLatency);
+		Files.writeString(path, parameters.toString());
+		return parameters;
+	}
+
+	/// Finds the parameters to hash with on this machine, using as many iterations as fit within the target latency
+	/// for the given memory and parallelism, but never less than [#MINIMUM_PARAMETERS].
+	///
+	/// This benchmarks hashing on the calling thread, so takes a few multiples of the target latency.
+	public static Parameters calibrate(int memoryKib, int parallelism, Duration targetLatency) {
+		int memory = Math.max(memoryKib, MINIMUM_PARAMETERS.memoryKib());
+		int iterations = Argon2Helper.findIterations(ARGON, targetLatency.toMillis(), memory, parallelism);
+		return new Parameters(Math.max(iterations, MINIMUM_PARAMETERS.iterations()), memory, parallelism);
+	}
+
+	public Parameters getParameters() {
+		return this.parameters;
+	}
+
+	/// Generates a salted hash for a secret (e.g. password).
+	public String hash(String secret) throws ServiceUnavailableException {
+		return this.run(() -> this.hashNow(secret));
+	}
+
+	/// Verifies that a secret (e.g. password) matches the given salted hash.
+	public boolean verify(String hash, String secret) throws ServiceUnavailableException {
+		return this.run(() -> ARGON.verify(hash, secret.toCharArray()));
+	}
+
+	/// @return whether a hash was created with weaker parameters than new hashes are, and should be replaced once its
+	/// secret is next verified. Hashes which are stronger in every parameter are kept as they are.
+	public boolean needsRehash(String hash) {
+		Parameters hashParameters = Parameters.parse(hash);
+		return hashParameters == null || hashParameters.isWeakerThan(this.parameters);
+	}
+
+	/// Hashes a secret with the current parameters without waiting for it, then passes the hash to `onHashed` on the
+	/// hashing thread.
+	///
+	/// Does nothing if the queue is full, as requests take priority, and the secret will be rehashed the next time
+	/// it's verified.
+	public void rehash(String secret, Consumer<String> onHashed) {
+		try {
+			this.executor.execute(() -> onHashed.accept(this.hashNow(secret)));
+		} catch (RejectedExecutionException ignored) {
+		}
+	}
+
+	private String hashNow(String secret) {
+		return ARGON.hash(
+				this.parameters.iterations(),
+				this.parameters.memoryKib(),
+				this.parameters.parallelism(),
+				secret.toCharArray()
+		);
+	}
+
+	private <T> T run(Supplier<T> task) throws ServiceUnavailableException {
+		long queuedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = this.executor.submit(() -> {
+				long startedAt = System.nanoTime();
+				this.queueNanos.add(startedAt - queuedAt);
+				try {
+					return task.get();
+				} finally {
+					this.hashNanos.add(System.nanoTime() - startedAt);
+					this.completed.increment();
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			this.rejected.increment();
+			throw this.unavailable();
+		}
+
+		try {
+			return future.get(this.maxWait.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException ex) {
+			// Only stops hashes which haven't started yet, as there's no way to interrupt a hash.
+			future.cancel(false);
+			this.timedOut.increment();
+			throw this.unavailable();
+		} catch (InterruptedException ex) {
+			future.cancel(false);
+			Thread.currentThread().interrupt();
+			throw this.unavailable();
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private ServiceUnavailableException unavailable() {
+		// Roughly how long it would take to get through everything that's queued right now.
+		Metrics metrics = this.getMetrics();
+		double drainMillis = (metrics.queueDepth() / (double) metrics.threads() + 1) * metrics.averageHashMillis();
+		Duration retryAfter = Duration.ofSeconds(Math.max(1, (long) Math.ceil(drainMillis / 1000)));
+		return new ServiceUnavailableException("Too many authentication requests are being processed. Try again later.", retryAfter);
+	}
+
+	public Metrics getMetrics() {
+		long completed = this.completed.sum();
+		return new Metrics(
+				this.executor.getMaximumPoolSize(),
+				this.executor.getQueue().size(),
+				this.executor.getActiveCount(),
+				completed,
+				this.rejected.sum(),
+				this.timedOut.sum(),
+				completed == 0 ? 0 : this.queueNanos.sum() / 1_000_000.0 / completed,
+				completed == 0 ? 0 : this.hashNanos.sum() / 1_000_000.0 / completed
+		);
+	}
+
+	/// Stops accepting hashes, then waits for queued hashes to finish.
+	@Override
+	public void close() throws InterruptedException {
+		this.executor.shutdown();
+		this.executor.awaitTermination(this.maxWait.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/// The cost parameters of Argon2id hashes.
+	///
+	/// @param iterations the amount of passes over memory, `t`.
+	/// @param memoryKib the amount of memory used, in KiB, `m`.
+	/// @param parallelism the amount of lanes, `p`.
+	public record Parameters(int iterations, int memoryKib, int parallelism) {
+		/// Reads the parameters from an encoded hash, such as `$argon2id$v=19$m=19456,t=2,p=1$<salt>$<hash>`.
+		///
+		/// @return the parameters, or null if the hash isn't an encoded Argon2id hash.
+		@Nullable
+		public static Parameters parse(String hash) {
+			String[] parts = hash.split("\\$");
+			if (parts.length != 6 || !parts[1].equals("argon2id")) {
+				return null;
+			}
+			return fromString(parts[3]);
+		}
+
+		/// Reads parameters in the form written by [#toString()], such as `m=19456,t=2,p=1`.
+		///
+		/// @return the parameters, or null if they're malformed.
+		@Nullable
+		public static Parameters fromString(String parameters) {
+			int iterations = -1;
+			int memoryKib = -1;
+			int parallelism = -1;
+			try {
+				for (String parameter : parameters.split(",")) {
+					int value = Integer.parseInt(parameter.substring(2));
+					switch (parameter.substring(0, 2)) {
+						case "t=" -> iterations = value;
+						case "m=" -> memoryKib = value;
+						case "p=" -> parallelism = value;
+						default -> {
+							return null;
+						}
+					}
+				}
+			} catch (NumberFormatException | IndexOutOfBoundsException ex) {
+				return null;
+			}
+
+			if (iterations < 1 || memoryKib < 1 || parallelism < 1) {
+				return null;
+			}
+			return new Parameters(iterations, memoryKib, parallelism);
+		}
+
+		/// @return whether any of these parameters is lower than the same parameter of `other`.
+		public boolean isWeakerThan(Parameters other) {
+			return this.iterations < other.iterations
+					|| this.memoryKib < other.memoryKib
+					|| this.parallelism < other.parallelism;
+		}
+
+		@Override
+		public String toString() {
+			return "m=" + this.memoryKib + ",t=" + this.iterations + ",p=" + this.parallelism;
+		}
+	}
+
+	/// A point-in-time snapshot of the executor's usage.
+	///
+	/// @param threads the amount of hashes which may run at once.
+	/// @param queueDepth the amount of hashes waiting to start.
+	/// @param activeHashes the amount of hashes currently running.
+	/// @param completed the amount of hashes which have finished.
+	/// @param rejected the amount of hashes turned away because the queue was full.
+	/// @param timedOut the amount of hashes whose caller stopped waiting for them.
+	/// @param averageQueueMillis the average time hashes spent waiting to start.
+	/// @param averageHashMillis the average time hashes took to run once started.
+	public record Metrics(
+			int threads,
+			int queueDepth,
+			int activeHashes,
+			long completed,
+			long rejected,
+			long timedOut,
+			double averageQueueMillis,
+			double averageHashMillis
+	) {
+	}
+}
@@ -3,20 +3,15 @@ package net.modgarden.backend.util;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Instant;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import io.javalin.http.Context;
 import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.data.LinkCode;
-import net.modgarden.backend.endpoint.AuthorizedEndpoint;
+import net.modgarden.backend.database.DatabaseAccess;
+import org.jetbrains.annotations.Nullable;
 
 public class AuthUtil {
 	private static final String RANDOM_CHARS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ-_/+=;!@#$%^&*()";
@@ -29,60 +24,29 @@ public class AuthUtil {
                 .collect(Collectors.joining("&"));
     }
 
-    public static String insertTokenIntoDatabase(Context ctx, String accountId, LinkCode.Service service) throws SQLException {
-        try (Connection connection = ModGardenBackend.createDatabaseConnection();
-             var checkAccountIdStatement = connection.prepareStatement("SELECT code FROM link_codes WHERE account_id = ?");
-             var checkCodeStatement = connection.prepareStatement("SELECT 1 FROM link_codes WHERE code = ?");
-             var insertStatement = connection.prepareStatement("INSERT INTO link_codes(code, account_id, service, expires) VALUES (?, ?, ?, ?)")) {
-            checkAccountIdStatement.setString(1, accountId);
-            ResultSet existing = checkAccountIdStatement.executeQuery();
-            String token = existing.getString(1);
-            if (token != null)
-                return token;
-            while (token == null) {
-                checkCodeStatement.clearParameters();
-                String potential = AuthorizedEndpoint.generateRandomToken();
-                checkCodeStatement.setString(1, potential);
-                ResultSet result = checkCodeStatement.executeQuery();
-                if (!result.getBoolean(1))
-                    token = potential;
-            }
-			// this almost gave me a heart attack, but no
-	        // it's not a token. this is actually a link code.
-	        // happy april fools
-            insertStatement.setString(1, token);
-            insertStatement.setString(2, accountId);
-            insertStatement.setString(3, service.serializedName());
-            insertStatement.setLong(4, AuthUtil.getTokenExpirationTime());
-            insertStatement.execute();
-            return token;
-        }
-    }
+	/// @return the account's unexpired link code, or a new one if it doesn't have one.
+	public static String createLinkCode(String accountId, LinkCode.Service service) {
+		return ModGardenBackend.getLinkCodeStore().getOrCreate(
+				accountId,
+				service,
+				Instant.ofEpochMilli(AuthUtil.getTokenExpirationTime())
+		);
+	}
+
+	/// Uses up a link code, so it can't be used again. Codes created before they were kept in memory may still be in
+	/// the database, so this must be called whilst writing.
+	///
+	/// @return the link code, or null if it doesn't exist or has expired.
+	@Nullable
+	public static LinkCode redeemLinkCode(String code) throws SQLException {
+		LinkCode linkCode = ModGardenBackend.getLinkCodeStore().remove(code);
+		if (linkCode != null) {
+			return linkCode;
+		}
+		return DatabaseAccess.get().deleteLinkCode(code, Instant.now());
+	}
 
 	public static long getTokenExpirationTime() {
         return (long) (Math.floor((double) (System.currentTimeMillis() + 900000) / 900000) * 900000); // 15 minutes later
     }
-
-    public static void clearTokensEachFifteenMinutes() {
-        new Thread(() -> {
-            try (ScheduledExecutorService executor = Executors.newScheduledThreadPool(1)) {
-                long scheduleTime = (long) (Math.floor((double) (System.currentTimeMillis() + 900000) / 900000) * 900000) - System.currentTimeMillis();
-				executor.schedule(() -> {
-                    clearTokens();
-                    executor.schedule(AuthUtil::clearTokens, 900000, TimeUnit.MILLISECONDS);
-                }, scheduleTime, TimeUnit.MILLISECONDS);
-            }
-        }).start();
-    }
-
-    private static void clearTokens() {
-        try (Connection connection = ModGardenBackend.createDatabaseConnection();
-             PreparedStatement statement = connection.prepareStatement("DELETE FROM link_codes WHERE expires <= ?")) {
-            statement.setLong(1, System.currentTimeMillis());
-            int total = statement.executeUpdate();
-			ModGardenBackend.LOG.debug("Cleared {} link codes.", total);
-        } catch (SQLException ex) {
-            ModGardenBackend.LOG.error("Failed to clear link codes from database.");
-        }
-    }
 }
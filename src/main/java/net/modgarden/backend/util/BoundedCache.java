@@ -0,0 +1,138 @@
+package net.modgarden.backend.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.Nullable;
+
+/// A bounded, least-recently-used cache, which evicts its least recently read entry once it's full.
+///
+/// Values are loaded from a source which can change whilst they're being loaded, such as the database. To stop an
+/// outdated value being cached after it's been invalidated, [#put(Object, Object, long)] takes the [#generation()]
+/// from before the value was loaded, and does nothing if anything has been invalidated since. Caches whose values
+/// depend on each other can share one generation counter.
+///
+/// Cached values are shared, so they must not be modified.
+public final class BoundedCache<K, V> {
+	private final String name;
+	private final int capacity;
+	private final AtomicLong generation;
+	private final LinkedHashMap<K, V> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	/// @param name what is being cached, for metrics.
+	/// @param capacity the maximum amount of values to cache, where 0 disables caching.
+	/// @param generation the counter increased whenever anything is invalidated.
+	public BoundedCache(String name, int capacity, AtomicLong generation) {
+		this.name = name;
+		this.capacity = capacity;
+		this.generation = generation;
+		this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				if (this.size() > BoundedCache.this.capacity) {
+					BoundedCache.this.evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public BoundedCache(String name, int capacity) {
+		this(name, capacity, new AtomicLong());
+	}
+
+	/// @return a counter which increases whenever anything is invalidated.
+	public long generation() {
+		return this.generation.get();
+	}
+
+	@Nullable
+	public V get(K key) {
+		return this.get(key, _ -> true);
+	}
+
+	/// Gets a cached value, removing it instead if it's no longer valid, such as once it has expired.
+	@Nullable
+	public synchronized V get(K key, Predicate<V> isValid) {
+		V value = this.entries.get(key);
+		if (value != null && !isValid.test(value)) {
+			this.entries.remove(key);
+			value = null;
+		}
+
+		if (value == null) {
+			this.misses.increment();
+		} else {
+			this.hits.increment();
+		}
+		return value;
+	}
+
+	/// Caches a value, unless anything has been invalidated since `generation`.
+	public synchronized void put(K key, V value, long generation) {
+		if (this.capacity > 0 && generation == this.generation.get()) {
+			this.entries.put(key, value);
+		}
+	}
+
+	public synchronized void invalidate(K key) {
+		this.generation.incrementAndGet();
+		if (this.entries.remove(key) != null) {
+			this.invalidations.increment();
+		}
+	}
+
+	/// Invalidates every cached value matching a predicate, for changes which affect values other than the one being
+	/// modified.
+	public synchronized void invalidateIf(Predicate<V> predicate) {
+		this.generation.incrementAndGet();
+		this.entries.values().removeIf(value -> {
+			if (predicate.test(value)) {
+				this.invalidations.increment();
+				return true;
+			}
+			return false;
+		});
+	}
+
+	public synchronized Metrics getMetrics() {
+		return new Metrics(
+				this.name,
+				this.entries.size(),
+				this.capacity,
+				this.hits.sum(),
+				this.misses.sum(),
+				this.evictions.sum(),
+				this.invalidations.sum()
+		);
+	}
+
+	/// A point-in-time snapshot of a cache's usage.
+	///
+	/// @param name what is being cached.
+	/// @param size the amount of values currently cached.
+	/// @param capacity the maximum amount of values which may be cached.
+	/// @param hits the amount of lookups served from the cache.
+	/// @param misses the amount of lookups which had to load their value.
+	/// @param evictions the amount of values removed to make room for others.
+	/// @param invalidations the amount of values removed because they changed.
+	public record Metrics(
+			String name,
+			int size,
+			int capacity,
+			long hits,
+			long misses,
+			long evictions,
+			long invalidations
+	) {
+	}
+}
@@ -0,0 +1,169 @@
+package net.modgarden.backend.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import net.modgarden.backend.ModGardenBackend;
+import net.modgarden.backend.data.LinkCode;
+import net.modgarden.backend.endpoint.AuthorizedEndpoint;
+import net.modgarden.backend.util.codec.JsonSerializer;
+import org.jetbrains.annotations.Nullable;
+
+/// Holds unexpired [LinkCode]s in memory, looked up by code and by account ID, so that linking an account never
+/// needs the database.
+///
+/// Expired codes are removed by a time wheel: each code is placed in the slot for the minute it expires in, and
+/// [#expire(Instant)] only visits the slots for minutes which have passed since it last ran. As codes live for at
+/// most 15 minutes, which is less than one turn of the wheel, every code in a visited slot has expired. Lookups
+/// check expiry themselves, so a code is never returned once it's expired, even before its slot is visited.
+///
+/// If a snapshot path is given, unexpired codes are written to it by [#save()] and read back by [#load(Path)], so
+/// that codes survive restarts.
+public final class LinkCodeStore {
+	private static final long TICK_MILLIS = 60_000;
+	private static final int WHEEL_SIZE = 32;
+
+	private final ConcurrentHashMap<String, LinkCode> byCode = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, String> byAccountId = new ConcurrentHashMap<>();
+	private final List<Set<String>> wheel = new ArrayList<>(WHEEL_SIZE);
+	private final @Nullable Path snapshotPath;
+	private long lastTick = System.currentTimeMillis() / TICK_MILLIS;
+
+	private LinkCodeStore(@Nullable Path snapshotPath) {
+		this.snapshotPath = snapshotPath;
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			this.wheel.add(ConcurrentHashMap.newKeySet());
+		}
+	}
+
+	/// Creates a store, reading any unexpired codes from the snapshot if there is one.
+	///
+	/// @param snapshotPath where codes are saved between restarts, or null to not save them.
+	public static LinkCodeStore load(@Nullable Path snapshotPath) {
+		LinkCodeStore store = new LinkCodeStore(snapshotPath);
+		if (snapshotPath == null || !Files.exists(snapshotPath)) {
+			return store;
+		}
+
+		try (Reader reader = Files.newBufferedReader(snapshotPath, StandardCharsets.UTF_8)) {
+			JsonElement json = JsonParser.parseReader(reader);
+			List<LinkCode> linkCodes = LinkCode.CODEC.listOf().parse(JsonOps.INSTANCE, json).getOrThrow();
+			Instant now = Instant.now();
+			for (LinkCode linkCode : linkCodes) {
+				if (linkCode.expires().isAfter(now)) {
+					store.add(linkCode);
+				}
+			}
+			ModGardenBackend.LOG.debug("Loaded {} link codes from {}.", store.byCode.size(), snapshotPath);
+		} catch (Exception ex) {
+			// Losing link codes only means linking has to be started again.
+			ModGardenBackend.LOG.warn("Failed to load link codes from {}.", snapshotPath, ex);
+		}
+		return store;
+	}
+
+	/// @return the account's unexpired link code, or a new one if it doesn't have one.
+	public String getOrCreate(String accountId, LinkCode.Service service, Instant expires) {
+		return this.byAccountId.compute(accountId, (_, existing) -> {
+			if (existing != null && this.get(existing) != null) {
+				return existing;
+			}
+
+			LinkCode linkCode;
+			do {
+				linkCode = new LinkCode(AuthorizedEndpoint.generateRandomToken(), accountId, service, expires);
+			} while (this.byCode.putIfAbsent(linkCode.code(), linkCode) != null);
+			this.wheel.get(slot(expires)).add(linkCode.code());
+			return linkCode.code();
+		});
+	}
+
+	/// @return the link code, or null if it doesn't exist or has expired.
+	@Nullable
+	public LinkCode get(String code) {
+		LinkCode linkCode = this.byCode.get(code);
+		if (linkCode == null || !linkCode.expires().isAfter(Instant.now())) {
+			return null;
+		}
+		return linkCode;
+	}
+
+	/// Removes a link code once it's been used. Only one caller gets the code back, so it can't be used twice.
+	///
+	/// @return the link code, or null if it doesn't exist or has expired.
+	@Nullable
+	public LinkCode remove(String code) {
+		LinkCode linkCode = this.byCode.remove(code);
+		if (linkCode == null) {
+			return null;
+		}
+
+		this.byAccountId.remove(linkCode.accountId(), code);
+		this.wheel.get(slot(linkCode.expires())).remove(code);
+		return linkCode.expires().isAfter(Instant.now()) ? linkCode : null;
+	}
+
+	private void add(LinkCode linkCode) {
+		this.byCode.put(linkCode.code(), linkCode);
+		this.byAccountId.put(linkCode.accountId(), linkCode.code());
+		this.wheel.get(slot(linkCode.expires())).add(linkCode.code());
+	}
+
+	/// Removes the codes in every slot whose minute has passed since this last ran.
+	///
+	/// @return the amount of codes removed.
+	public synchronized int expire(Instant now) {
+		long tick = now.toEpochMilli() / TICK_MILLIS;
+		// Slots are only visited once their whole minute has passed, and at most once per turn.
+		long from = Math.max(this.lastTick, tick - WHEEL_SIZE);
+		int removed = 0;
+		for (long t = from; t < tick; t++) {
+			for (String code : this.wheel.get(Math.floorMod(t, WHEEL_SIZE))) {
+				LinkCode linkCode = this.byCode.get(code);
+				if (linkCode == null || !linkCode.expires().isAfter(now)) {
+					this.remove(code);
+					removed++;
+				}
+			}
+		}
+		this.lastTick = tick;
+		return removed;
+	}
+
+	/// Writes every unexpired code to the snapshot, if there is one.
+	public void save() throws IOException {
+		if (this.snapshotPath == null) {
+			return;
+		}
+
+		Instant now = Instant.now();
+		List<LinkCode> linkCodes = this.byCode.values().stream()
+				.filter(linkCode -> linkCode.expires().isAfter(now))
+				.toList();
+		JsonElement json = LinkCode.CODEC.listOf().encodeStart(JsonOps.INSTANCE, linkCodes).getOrThrow();
+
+		// Written to a temporary file first, so a crash never leaves a partially written snapshot.
+		Path temporaryPath = this.snapshotPath.resolveSibling(this.snapshotPath.getFileName() + ".tmp");
+		try (Writer writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8)) {
+			JsonSerializer.GSON.toJson(json, writer);
+		}
+		Files.move(temporaryPath, this.snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static int slot(Instant expires) {
+		return Math.floorMod(expires.toEpochMilli() / TICK_MILLIS, WHEEL_SIZE);
+	}
+}
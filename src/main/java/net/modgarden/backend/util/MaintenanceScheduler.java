@@ -0,0 +1,156 @@
+package net.modgarden.backend.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.modgarden.backend.ModGardenBackend;
+import org.jetbrains.annotations.Nullable;
+
+/// Runs periodic maintenance jobs, such as deleting expired rows, on one background thread, away from requests.
+///
+/// Each job is only scheduled again once its previous run has finished, so a job never overlaps with itself, and as
+/// there's only one thread, never with any other job either. Every delay has up to [#JITTER] added or removed at
+/// random, and each job's first run is at a random point within its first interval, so jobs with the same interval
+/// don't all run at once.
+public final class MaintenanceScheduler implements AutoCloseable {
+	/// The largest fraction of a job's interval which may be added to or removed from each delay.
+	public static final double JITTER = 0.1;
+
+	private final ScheduledThreadPoolExecutor executor;
+	private final List<Job> jobs = new ArrayList<>();
+
+	public MaintenanceScheduler() {
+		this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "maintenance");
+			thread.setDaemon(true);
+			return thread;
+		});
+		// Jobs that are waiting for their next run are dropped on shutdown, rather than waited for.
+		this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+	}
+
+	/// Registers a job, which first runs within `interval`, then `interval` after each run finishes.
+	///
+	/// Exceptions thrown by the job are logged, and it's still run again.
+	public synchronized void register(String name, Duration interval, Task task) {
+		Job job = new Job(name, interval, task);
+		this.jobs.add(job);
+		this.schedule(job, (long) (ThreadLocalRandom.current().nextDouble() * interval.toNanos()));
+	}
+
+	private void schedule(Job job, long delayNanos) {
+		if (this.executor.isShutdown()) {
+			return;
+		}
+
+		try {
+			this.executor.schedule(() -> this.run(job), delayNanos, TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException ignored) {
+			// Shut down since checking.
+		}
+	}
+
+	private void run(Job job) {
+		long start = System.nanoTime();
+		try {
+			job.task.run();
+		} catch (Throwable t) {
+			job.failures.increment();
+			ModGardenBackend.LOG.error("Maintenance job '{}' failed.", job.name, t);
+		}
+
+		long duration = System.nanoTime() - start;
+		job.runs.increment();
+		job.totalNanos.add(duration);
+		job.lastNanos.set(duration);
+		job.maxNanos.accumulateAndGet(duration, Math::max);
+		job.lastRun = Instant.now();
+
+		double jitter = (ThreadLocalRandom.current().nextDouble() * 2 - 1) * JITTER;
+		this.schedule(job, (long) (job.interval.toNanos() * (1 + jitter)));
+	}
+
+	public synchronized List<Metrics> getMetrics() {
+		List<Metrics> metrics = new ArrayList<>(this.jobs.size());
+		for (Job job : this.jobs) {
+			long runs = job.runs.sum();
+			metrics.add(new Metrics(
+					job.name,
+					job.interval,
+					runs,
+					job.failures.sum(),
+					job.lastRun,
+					job.lastNanos.get() / 1_000_000.0,
+					runs == 0 ? 0 : job.totalNanos.sum() / 1_000_000.0 / runs,
+					job.maxNanos.get() / 1_000_000.0
+			));
+		}
+		return metrics;
+	}
+
+	/// Stops scheduling jobs, then waits for any running job to finish, only interrupting it if it takes longer than a
+	/// minute.
+	@Override
+	public void close() throws InterruptedException {
+		this.executor.shutdown();
+		if (!this.executor.awaitTermination(1, TimeUnit.MINUTES)) {
+			ModGardenBackend.LOG.warn("Maintenance jobs didn't finish within a minute of shutting down, interrupting them.");
+			this.executor.shutdownNow();
+		}
+	}
+
+	/// A unit of maintenance work.
+	@FunctionalInterface
+	public interface Task {
+		void run() throws Exception;
+	}
+
+	private static final class Job {
+		private final String name;
+		private final Duration interval;
+		private final Task task;
+
+		private final LongAdder runs = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong lastNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private volatile @Nullable Instant lastRun;
+
+		private Job(String name, Duration interval, Task task) {
+			this.name = name;
+			this.interval = interval;
+			this.task = task;
+		}
+	}
+
+	/// A point-in-time snapshot of a job's runs.
+	///
+	/// @param name the name the job was registered with.
+	/// @param interval how long the job waits between runs, before jitter.
+	/// @param runs the amount of times the job has run.
+	/// @param failures the amount of runs which threw.
+	/// @param lastRun when the job last finished running, or null if it hasn't yet.
+	/// @param lastMillis how long the last run took.
+	/// @param averageMillis how long runs took on average.
+	/// @param maxMillis how long the longest run took.
+	public record Metrics(
+			String name,
+			Duration interval,
+			long runs,
+			long failures,
+			@Nullable Instant lastRun,
+			double lastMillis,
+			double averageMillis,
+			double maxMillis
+	) {
+	}
+}
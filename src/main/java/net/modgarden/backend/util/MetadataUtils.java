@@ -12,6 +12,8 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 
@@ -21,7 +23,10 @@ import com.google.gson.JsonParser;
 import net.modgarden.backend.ModGardenBackend;
 import net.modgarden.backend.data.LandingPage;
 import net.modgarden.backend.data.project.ProjectMetadata;
+import net.modgarden.backend.data.project.SubmissionPlatform;
 import net.modgarden.backend.data.project.metadata.ModProjectMetadata;
+import net.modgarden.backend.data.project.platform.DownloadUrlSubmissionPlatform;
+import net.modgarden.backend.data.project.platform.ModrinthSubmissionPlatform;
 import net.modgarden.backend.endpoint.exception.*;
 import net.modgarden.backend.oauth.OAuthService;
 import net.modgarden.backend.oauth.client.ModrinthOAuthClient;
@@ -33,8 +38,22 @@ import org.jetbrains.annotations.Nullable;
 /// @see ProjectMetadata
 /// @see ModProjectMetadata
 public class MetadataUtils {
+	private static final Path TEMPORARY_FOLDER = Path.of("./.tmp/");
 	private static final String USER_AGENT = "ModGardenEvent/backend/" + LandingPage.getInstance().version() + " (modgarden.net)";
 
+	/// Downloads the project a submission platform points to, and reads its metadata.
+	///
+	/// This makes remote requests, so it should never be called whilst holding the writer connection.
+	public static ProjectMetadata getMetadata(SubmissionPlatform platform) throws HypertextException {
+		if (platform instanceof ModrinthSubmissionPlatform modrinth) {
+			return getMetadataFromModrinth(modrinth.projectId(), modrinth.versionId());
+		}
+		if (platform instanceof DownloadUrlSubmissionPlatform downloadUrl) {
+			return getMetadataFromDownloadUrl(downloadUrl.downloadUrl());
+		}
+		throw new InternalServerException("Platform '" + platform.typeName() + "' not implemented.");
+	}
+
 	public static ProjectMetadata getMetadataFromModrinth(String modrinthProjectId,
 	                                                      String modrinthVersionId) throws HypertextException {
 		ModrinthOAuthClient authClient = OAuthService.MODRINTH.authenticate();
@@ -178,7 +197,7 @@ public class MetadataUtils {
 				.build();
 		String fileName = getFileName(uri);
 
-		Path temporaryFolder = Path.of("./.tmp/")
+		Path temporaryFolder = TEMPORARY_FOLDER
 				.resolve(fileName);
 
 		Files.createDirectories(temporaryFolder.getParent());
@@ -188,6 +207,28 @@ public class MetadataUtils {
 		return response.body().toFile();
 	}
 
+	/// Deletes downloaded files which are older than `maxAge`, as files whose metadata failed to be read are left
+	/// behind.
+	///
+	/// @return the amount of files deleted.
+	public static int sweepTemporaryFiles(Duration maxAge) throws IOException {
+		if (!Files.isDirectory(TEMPORARY_FOLDER)) {
+			return 0;
+		}
+
+		Instant cutoff = Instant.now().minus(maxAge);
+		int deleted = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(TEMPORARY_FOLDER)) {
+			for (Path file : files) {
+				if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+					Files.deleteIfExists(file);
+					deleted++;
+				}
+			}
+		}
+		return deleted;
+	}
+
 	private static boolean isJar(File file) {
 		String fileName = file.getName();
 
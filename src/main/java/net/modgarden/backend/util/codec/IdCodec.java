@@ -0,0 +1,122 @@
+package net.modgarden.backend.util.codec;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+import net.modgarden.backend.database.DatabaseAccess;
+
+/// A codec for the ID of a row, which checks that the row exists when decoding.
+///
+/// Encoding never checks, as anything being encoded has already been read from the database.
+///
+/// Within [#validateDeferred(Supplier)], decoded IDs are collected instead of checked one at a time, then checked
+/// together with one query per table once decoding has finished. Outside of it, each ID is checked as it's decoded.
+public final class IdCodec implements Codec<String> {
+	private static final ScopedValue<Map<IdCodec, Set<String>>> DEFERRED = ScopedValue.newInstance();
+
+	private final String table;
+	private final String name;
+
+	private IdCodec(String table, String name) {
+		this.table = table;
+		this.name = name;
+	}
+
+	/// @param table the table whose `id` column should contain the ID.
+	/// @param name what the row is called in error messages, e.g. `user role`.
+	public static IdCodec of(String table, String name) {
+		return new IdCodec(table, name);
+	}
+
+	/// Decodes with every [IdCodec] reached during decoding checked afterward, in one query per table.
+	///
+	/// @param decoder the decoding to run.
+	/// @return the decoded result, or an error listing every ID that doesn't exist.
+	public static <T> DataResult<T> validateDeferred(Supplier<DataResult<T>> decoder) {
+		Map<IdCodec, Set<String>> deferred = new LinkedHashMap<>();
+		DataResult<T> result = ScopedValue.where(DEFERRED, deferred).call(decoder::get);
+		if (result.isError() || deferred.isEmpty()) {
+			return result;
+		}
+
+		List<String> errors = new ArrayList<>();
+		for (Map.Entry<IdCodec, Set<String>> entry : deferred.entrySet()) {
+			IdCodec codec = entry.getKey();
+			Set<String> existing = codec.getExisting(entry.getValue());
+			for (String id : entry.getValue()) {
+				if (!existing.contains(id)) {
+					errors.add(codec.errorMessage(id));
+				}
+			}
+		}
+
+		if (errors.isEmpty()) {
+			return result;
+		}
+		return DataResult.error(() -> String.join("; ", errors));
+	}
+
+	@Override
+	public <TOps> DataResult<Pair<String, TOps>> decode(DynamicOps<TOps> ops, TOps input) {
+		return Codec.STRING.decode(ops, input).flatMap(pair -> {
+			String id = pair.getFirst();
+
+			// ScopedValue#orElse rejects null.
+			Map<IdCodec, Set<String>> deferred = DEFERRED.isBound() ? DEFERRED.get() : null;
+			if (deferred != null) {
+				deferred.computeIfAbsent(this, _ -> new LinkedHashSet<>()).add(id);
+				return DataResult.success(pair);
+			}
+
+			if (this.getExisting(Set.of(id)).contains(id)) {
+				return DataResult.success(pair);
+			}
+			return DataResult.error(() -> this.errorMessage(id));
+		});
+	}
+
+	@Override
+	public <TOps> DataResult<TOps> encode(String input, DynamicOps<TOps> ops, TOps prefix) {
+		return Codec.STRING.encode(input, ops, prefix);
+	}
+
+	/// @throws LookupException if the database couldn't be read, which must not be reported as the ID not existing.
+	private Set<String> getExisting(Set<String> ids) {
+		try {
+			return DatabaseAccess.get().getExistingIds(this.table, ids);
+		} catch (SQLException ex) {
+			throw new LookupException(ex);
+		}
+	}
+
+	private String errorMessage(String id) {
+		return "Failed to get " + this.name + " with id '" + id + "'";
+	}
+
+	@Override
+	public String toString() {
+		return "IdCodec[" + this.table + "]";
+	}
+
+	/// Thrown out of decoding when the IDs couldn't be checked, as codecs can't throw [SQLException] themselves.
+	public static final class LookupException extends RuntimeException {
+		private LookupException(SQLException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized SQLException getCause() {
+			return (SQLException) super.getCause();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package net.modgarden.backend.util.codec;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+
+/// Writes a value straight to a [JsonWriter], without building a [JsonElement] tree through [JsonOps] first.
+///
+/// Serializers are only used to encode responses, and must write exactly what the value's [Codec] would encode to.
+/// Decoding and validation are still done by codecs.
+@FunctionalInterface
+public interface JsonSerializer<T> {
+	/// Writes [JsonElement]s the same way as [JsonElement#toString()].
+	Gson GSON = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
+
+	JsonSerializer<String> STRING = JsonWriter::value;
+	/// Matches [ExtraCodecs#INSTANT_CODEC].
+	JsonSerializer<Instant> INSTANT = (writer, instant) -> writer.value(Long.toString(instant.toEpochMilli()));
+
+	void write(JsonWriter writer, T value) throws IOException;
+
+	/// Matches [Codec#listOf()], for any collection.
+	static <E> JsonSerializer<Iterable<? extends E>> list(JsonSerializer<E> element) {
+		return (writer, values) -> {
+			writer.beginArray();
+			for (E value : values) {
+				element.write(writer, value);
+			}
+			writer.endArray();
+		};
+	}
+
+	/// Matches [Codec#unboundedMap(Codec, Codec)] with string keys.
+	static <V> JsonSerializer<Map<String, ? extends V>> map(JsonSerializer<V> value) {
+		return (writer, map) -> {
+			writer.beginObject();
+			for (Map.Entry<String, ? extends V> entry : map.entrySet()) {
+				writer.name(entry.getKey());
+				value.write(writer, entry.getValue());
+			}
+			writer.endObject();
+		};
+	}
+
+	/// Encodes values with a codec, for values which aren't worth writing a serializer for, such as dispatched
+	/// types.
+	static <T> JsonSerializer<T> fromCodec(Codec<T> codec) {
+		return (writer, value) -> GSON.toJson(codec.encodeStart(JsonOps.INSTANCE, value).getOrThrow(), writer);
+	}
+}
@@ -0,0 +1,88 @@
+package net.modgarden.backend.util.codec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import com.google.gson.stream.JsonWriter;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import org.jetbrains.annotations.Nullable;
+
+/// A [JsonSerializer] for records, which writes each field from its getter in the order they were added.
+///
+/// Fields must be added in the same order as the record's [RecordCodecBuilder] group, so that the output is the
+/// same as the codec's.
+public final class ObjectSerializer<T> implements JsonSerializer<T> {
+	private final Field<T, ?>[] fields;
+
+	private ObjectSerializer(Field<T, ?>[] fields) {
+		this.fields = fields;
+	}
+
+	public static <T> Builder<T> builder() {
+		return new Builder<>();
+	}
+
+	@Override
+	public void write(JsonWriter writer, T value) throws IOException {
+		writer.beginObject();
+		for (Field<T, ?> field : this.fields) {
+			field.write(writer, value);
+		}
+		writer.endObject();
+	}
+
+	public static final class Builder<T> {
+		private final List<Field<T, ?>> fields = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		/// Matches `fieldOf(name)`.
+		public <F> Builder<T> field(String name, Function<T, F> getter, JsonSerializer<F> serializer) {
+			this.fields.add(new Field<>(name, getter, serializer, false, null));
+			return this;
+		}
+
+		/// Matches `optionalFieldOf(name)` for a nullable getter, leaving the field out when it's null.
+		public <F> Builder<T> optionalField(String name, Function<T, @Nullable F> getter, JsonSerializer<F> serializer) {
+			this.fields.add(new Field<>(name, getter, serializer, true, null));
+			return this;
+		}
+
+		/// Matches `optionalFieldOf(name, defaultValue)`, leaving the field out when it's equal to the default.
+		public <F> Builder<T> optionalField(String name, Function<T, F> getter, JsonSerializer<F> serializer, F defaultValue) {
+			this.fields.add(new Field<>(name, getter, serializer, true, defaultValue));
+			return this;
+		}
+
+		@SuppressWarnings("unchecked")
+		public ObjectSerializer<T> build() {
+			return new ObjectSerializer<>(this.fields.toArray(Field[]::new));
+		}
+	}
+
+	private record Field<T, F>(
+			String name,
+			Function<T, F> getter,
+			JsonSerializer<F> serializer,
+			boolean optional,
+			@Nullable F defaultValue
+	) {
+		void write(JsonWriter writer, T object) throws IOException {
+			F value = this.getter.apply(object);
+			if (this.optional && (value == null || Objects.equals(value, this.defaultValue))) {
+				return;
+			}
+			if (value == null) {
+				// The codec would fail to encode this too.
+				throw new IllegalStateException("No value present for field '" + this.name + "'");
+			}
+
+			writer.name(this.name);
+			this.serializer.write(writer, value);
+		}
+	}
+}
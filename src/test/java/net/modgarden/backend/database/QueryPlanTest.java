@@ -0,0 +1,112 @@
+package net.modgarden.backend.database;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import net.modgarden.backend.ModGardenBackend;
+import net.modgarden.backend.data.fixer.DatabaseFixer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/// Runs `EXPLAIN QUERY PLAN` on every SQL statement in the backend's sources against a newly created database, and
+/// fails on any which scans a whole table, so a query that's missing an index is caught before it's deployed rather
+/// than once the table has grown.
+class QueryPlanTest {
+	// Text blocks, and single-line strings which begin with a statement. Either is skipped if it's formatted or
+	// concatenated, as the SQL isn't complete until it's run.
+	private static final Pattern TEXT_BLOCK = Pattern.compile("\"\"\"\\n(.*?)\"\"\"", Pattern.DOTALL);
+	private static final Pattern STRING = Pattern.compile("\"((?:SELECT|UPDATE|DELETE) [^\"\\\\]*)\"");
+	private static final Pattern COMPLETED = Pattern.compile("\\s*[^\\s+.]");
+	private static final Pattern STATEMENT = Pattern.compile("^(SELECT|UPDATE|DELETE)\\s");
+
+	/// Statements which are allowed to scan a whole table, as they're only run by maintenance jobs or on startup, away
+	/// from any request. Whitespace is collapsed to single spaces before they're compared.
+	private static final Set<String> ALLOWED_SCANS = Set.of(
+			"DELETE FROM api_keys WHERE expires <= ?",
+			"DELETE FROM link_codes WHERE expires <= ?",
+			"SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?"
+	);
+
+	private static Path sourceDirectory;
+
+	@BeforeAll
+	static void createDatabase() throws IOException {
+		sourceDirectory = Path.of(System.getProperty("modgarden.source_directory", "src/main/java"));
+		Files.deleteIfExists(Path.of("database.db"));
+		// As a new database is set up on startup.
+		DatabaseFixer.createFixers();
+		ModGardenBackend.createDatabaseContents();
+		ModGardenBackend.updateSchemaVersion();
+	}
+
+	@Test
+	void statementsUseIndexes() throws IOException, SQLException {
+		Set<String> statements = findStatements();
+		assertFalse(statements.isEmpty(), "Found no SQL statements in " + sourceDirectory);
+
+		List<String> failures = new ArrayList<>();
+		try (Connection connection = ModGardenBackend.createDatabaseConnection()) {
+			for (String sql : statements) {
+				List<String> scans;
+				try {
+					scans = QueryPlanChecker.findTableScans(connection, sql);
+				} catch (SQLException ex) {
+					failures.add("Failed to explain (" + ex.getMessage() + "):\n" + sql);
+					continue;
+				}
+
+				if (!scans.isEmpty() && !ALLOWED_SCANS.contains(sql.replaceAll("\\s+", " "))) {
+					failures.add(String.join(", ", scans) + ":\n" + sql);
+				}
+			}
+		}
+
+		if (!failures.isEmpty()) {
+			fail(failures.size() + " statement(s) scan a whole table:\n\n" + String.join("\n\n", failures));
+		}
+	}
+
+	/// Finds every statement outside the data fixers, which only run once against older schemas.
+	private static Set<String> findStatements() throws IOException {
+		Path fixers = sourceDirectory.resolve("net/modgarden/backend/data/fixer");
+		Set<String> statements = new LinkedHashSet<>();
+		try (Stream<Path> files = Files.walk(sourceDirectory)) {
+			for (Path file : files.filter(path -> path.toString().endsWith(".java") && !path.startsWith(fixers)).toList()) {
+				String source = Files.readString(file);
+
+				Matcher textBlocks = TEXT_BLOCK.matcher(source);
+				while (textBlocks.find()) {
+					String sql = textBlocks.group(1).stripIndent().translateEscapes().strip();
+					if (STATEMENT.matcher(sql).find() && isCompleted(source, textBlocks.end())) {
+						statements.add(sql);
+					}
+				}
+
+				Matcher strings = STRING.matcher(source);
+				while (strings.find()) {
+					if (isCompleted(source, strings.end())) {
+						statements.add(strings.group(1).strip());
+					}
+				}
+			}
+		}
+		return statements;
+	}
+
+	private static boolean isCompleted(String source, int end) {
+		return COMPLETED.matcher(source).region(end, source.length()).lookingAt();
+	}
+}
@@ -0,0 +1,208 @@
+package net.modgarden.backend.util.codec;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import net.modgarden.backend.data.Integration;
+import net.modgarden.backend.data.event.Event;
+import net.modgarden.backend.data.event.EventMetadata;
+import net.modgarden.backend.data.event.EventTimes;
+import net.modgarden.backend.data.event.Genre;
+import net.modgarden.backend.data.event.game.MinecraftEventPlatform;
+import net.modgarden.backend.data.permission.Permission;
+import net.modgarden.backend.data.permission.Permissions;
+import net.modgarden.backend.data.project.Project;
+import net.modgarden.backend.data.project.Submission;
+import net.modgarden.backend.data.project.metadata.ModProjectMetadata;
+import net.modgarden.backend.data.project.metadata.NoneProjectMetadata;
+import net.modgarden.backend.data.project.platform.DownloadUrlSubmissionPlatform;
+import net.modgarden.backend.data.project.platform.ModrinthSubmissionPlatform;
+import net.modgarden.backend.data.user.Bio;
+import net.modgarden.backend.data.user.User;
+import net.modgarden.backend.data.user.integration.DiscordUserIntegration;
+import net.modgarden.backend.data.user.integration.MinecraftUserIntegration;
+import net.modgarden.backend.data.user.integration.ModrinthUserIntegration;
+import net.modgarden.backend.data.user.role.DiscordUserRoleIntegration;
+import net.modgarden.backend.data.user.role.UserRole;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/// Checks that every [JsonSerializer] writes exactly what its type's [Codec] encodes to, including with optional
+/// fields left out, as responses are encoded with serializers whilst requests are still decoded with codecs.
+class JsonSerializerTest {
+	private static final Instant TIME = Instant.ofEpochMilli(1_735_689_600_123L);
+
+	private static final EventMetadata METADATA = new EventMetadata("Mod Garden: Nature", "Mods about \"nature\" & <plants>.");
+	private static final EventTimes TIMES = new EventTimes(
+			TIME,
+			TIME.plusSeconds(86_400),
+			TIME.plusSeconds(172_800),
+			TIME.plusSeconds(259_200),
+			TIME.plusSeconds(345_600)
+	);
+	private static final Bio BIO = new Bio(
+			"Gardener",
+			"they/them",
+			"Grows mods.\nSometimes plants.",
+			"https://cdn.modgarden.net/avatar.png",
+			orderedMap("website", "https://modgarden.net", "ünïcödé", "✿")
+	);
+	private static final Project PROJECT = new Project(
+			"abcde",
+			new ModProjectMetadata("garden_mod", "Garden Mod", "Adds a garden.", "https://github.com/ModGardenEvent/backend"),
+			orderedMap("fghij", "Developer", "klmno", "Artist"),
+			orderedMap("fghij", new Permissions(Permission.EDIT_PROJECT), "klmno", new Permissions(0)),
+			List.of("pqrst", "uvwxy")
+	);
+
+	@Test
+	void eventMetadata() throws IOException {
+		assertMatchesCodec(EventMetadata.CODEC, EventMetadata.SERIALIZER, METADATA);
+		assertMatchesCodec(EventMetadata.CODEC, EventMetadata.SERIALIZER, new EventMetadata("Mod Garden", null));
+	}
+
+	@Test
+	void eventTimes() throws IOException {
+		assertMatchesCodec(EventTimes.CODEC, EventTimes.SERIALIZER, TIMES);
+	}
+
+	@Test
+	void event() throws IOException {
+		MinecraftEventPlatform platform = new MinecraftEventPlatform("neoforge", "1.21.1");
+		assertMatchesCodec(Event.DIRECT_CODEC, Event.SERIALIZER, new Event(
+				"abcde",
+				"nature",
+				METADATA,
+				TIMES,
+				platform,
+				orderedMap("participant", "fghij", "judge", "klmno")
+		));
+		assertMatchesCodec(Event.DIRECT_CODEC, Event.SERIALIZER, new Event(
+				"abcde",
+				"nature",
+				new EventMetadata("Nature", null),
+				TIMES,
+				platform,
+				Map.of()
+		));
+	}
+
+	@Test
+	void genre() throws IOException {
+		assertMatchesCodec(Genre.DIRECT_CODEC, Genre.SERIALIZER, Genre.getModGarden(List.of("abcde", "fghij")));
+		assertMatchesCodec(Genre.DIRECT_CODEC, Genre.SERIALIZER, Genre.getModGarden(List.of()));
+	}
+
+	@Test
+	void project() throws IOException {
+		assertMatchesCodec(Project.DIRECT_CODEC, Project.SERIALIZER, PROJECT);
+		assertMatchesCodec(Project.DIRECT_CODEC, Project.SERIALIZER, new Project(
+				"abcde",
+				new NoneProjectMetadata("Unnamed"),
+				Map.of(),
+				Map.of(),
+				List.of()
+		));
+	}
+
+	@Test
+	void submission() throws IOException {
+		assertMatchesCodec(Submission.DIRECT_CODEC, Submission.SERIALIZER, new Submission(
+				"zyxwv",
+				"abcde",
+				TIME,
+				PROJECT,
+				new ModrinthSubmissionPlatform("AANobbMI", "IZskON6d")
+		));
+		assertMatchesCodec(Submission.DIRECT_CODEC, Submission.SERIALIZER, new Submission(
+				"zyxwv",
+				"abcde",
+				TIME,
+				PROJECT,
+				new DownloadUrlSubmissionPlatform("https://cdn.modgarden.net/garden_mod.jar")
+		));
+	}
+
+	@Test
+	void bio() throws IOException {
+		assertMatchesCodec(Bio.DIRECT_CODEC, Bio.SERIALIZER, BIO);
+		assertMatchesCodec(Bio.DIRECT_CODEC, Bio.SERIALIZER, new Bio(null, null, null, null, Map.of()));
+	}
+
+	@Test
+	void user() throws IOException {
+		Map<String, Integration> integrations = new LinkedHashMap<>();
+		integrations.put(ModrinthUserIntegration.ID, new ModrinthUserIntegration("Gardener"));
+		integrations.put(DiscordUserIntegration.ID, new DiscordUserIntegration("123456789012345678"));
+		integrations.put(MinecraftUserIntegration.ID, new MinecraftUserIntegration(List.of("069a79f444e94726a5befca90e38aaf5")));
+
+		assertMatchesCodec(User.DIRECT_CODEC, User.SERIALIZER, new User(
+				"fghij",
+				"gardener",
+				BIO,
+				new Permissions(Permission.ADMINISTRATOR),
+				TIME,
+				integrations,
+				orderedSet("abcde", "pqrst"),
+				orderedSet("abcde"),
+				orderedSet("moder", "judge")
+		));
+		assertMatchesCodec(User.DIRECT_CODEC, User.SERIALIZER, new User(
+				"fghij",
+				"gardener",
+				new Bio(null, null, null, null, Map.of()),
+				new Permissions(0),
+				TIME,
+				Map.of(),
+				Set.of(),
+				Set.of(),
+				Set.of()
+		));
+	}
+
+	@Test
+	void userRole() throws IOException {
+		assertMatchesCodec(UserRole.DIRECT_CODEC, UserRole.SERIALIZER, new UserRole(
+				"moder",
+				"Moderator",
+				new Permissions(Permission.MODERATE_USERS, Permission.EDIT_EVENT),
+				TIME,
+				Map.of(DiscordUserRoleIntegration.ID, new DiscordUserRoleIntegration("876543210987654321"))
+		));
+		assertMatchesCodec(UserRole.DIRECT_CODEC, UserRole.SERIALIZER, new UserRole(
+				"moder",
+				"Moderator",
+				new Permissions(0),
+				TIME,
+				Map.of()
+		));
+	}
+
+	private static <T> void assertMatchesCodec(Codec<T> codec, JsonSerializer<T> serializer, T value) throws IOException {
+		String expected = JsonSerializer.GSON.toJson(codec.encodeStart(JsonOps.INSTANCE, value).getOrThrow());
+
+		StringWriter writer = new StringWriter();
+		serializer.write(JsonSerializer.GSON.newJsonWriter(writer), value);
+		assertEquals(expected, writer.toString());
+	}
+
+	private static <V> Map<String, V> orderedMap(String key1, V value1, String key2, V value2) {
+		Map<String, V> map = new LinkedHashMap<>();
+		map.put(key1, value1);
+		map.put(key2, value2);
+		return map;
+	}
+
+	private static Set<String> orderedSet(String... values) {
+		return new LinkedHashSet<>(List.of(values));
+	}
+}